@@ -1,69 +1,164 @@
 package com.example.cs2bot;
 
+import com.example.cs2bot.alerts.PriceAlerts;
+import com.example.cs2bot.commands.CommandRegistry;
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.db.ChangeStreamWatcher;
+import com.example.cs2bot.db.InventoryMigration;
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.db.MongoMetrics;
 import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.leaderboard.Leaderboards;
 import com.example.cs2bot.listeners.ButtonListener;
 import com.example.cs2bot.listeners.SlashCommandListener;
+import com.example.cs2bot.prices.PriceAggregator;
+import com.example.cs2bot.stats.GuildStats;
+import com.example.cs2bot.utils.CsFloatRepricer;
+import com.example.cs2bot.utils.Log;
 import com.example.cs2bot.utils.PriceUpdater;
-import io.github.cdimascio.dotenv.Dotenv;
+import com.example.cs2bot.utils.StartupMetrics;
+import com.example.cs2bot.utils.SteamMarketAPI;
+import com.example.cs2bot.utils.SteamSchemaAPI;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class Main {
     public static void main(String[] args) {
-        // 🔧 Load .env file
-        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        // 🔧 Load configuration once
+        BotConfig config = BotConfig.load();
+        Log.setLevel(config.logLevel);
+        Log.start();
 
-        String token = dotenv.get("BOT_TOKEN");
-        String mongoUri = dotenv.get("MONGO_URI");
-        String steamKey = dotenv.get("STEAM_API_KEY");
+        Log.info("Startup", "🔧 Environment check", "botToken", config.botToken != null,
+                "mongoUri", config.mongoUri != null, "steamApiKey", BotConfig.mask(config.steamApiKey));
 
-        System.out.println("🔧 Environment check:");
-        System.out.println(" - BOT_TOKEN loaded? " + (token != null && !token.isBlank()));
-        System.out.println(" - MONGO_URI loaded? " + (mongoUri != null && !mongoUri.isBlank()));
-        System.out.println(" - STEAM_API_KEY: " + (steamKey != null ? steamKey : "❌ MISSING"));
+        ExecutorService startup = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
 
-        // 🧩 Connect to MongoDB
-        MongoUtil.init(mongoUri, "cs2_case_bot");
+        // 🧩 Independent steps run in parallel: Mongo connect, Discord login, local setup
+        CompletableFuture<Void> mongo = CompletableFuture.runAsync(() -> {
+            long t = System.currentTimeMillis();
+            MongoUtil.init(config);
+            MongoMetrics.INSTANCE.startReporting(config.getLong("MONGO_METRICS_INTERVAL_MS", 60_000));
+            StartupMetrics.step("mongo", t);
+        }, startup);
 
-        // 💬 Setup Discord bot
-        try {
-            JDABuilder.createDefault(token)
-                    .enableIntents(GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT)
-                    .setStatus(OnlineStatus.ONLINE)
-                    .addEventListeners(
-                            new SlashCommandListener(), // /case, /inventory, /refreshprices, etc.
-                            new ButtonListener()         // case open button interactions
-                    )
-                    .build();
+        CompletableFuture<JDA> discord = CompletableFuture.supplyAsync(() -> {
+            long t = System.currentTimeMillis();
+            try {
+                JDA jda = JDABuilder.createDefault(config.botToken)
+                        .enableIntents(GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT)
+                        .setStatus(OnlineStatus.ONLINE)
+                        .build()
+                        .awaitReady();
+                StartupMetrics.step("discord", t);
+                return jda;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during Discord login", e);
+            }
+        }, startup);
+
+        CompletableFuture<Void> local = CompletableFuture.runAsync(() -> {
+            long t = System.currentTimeMillis();
+            SteamSchemaAPI.loadRarities(config);
+            SteamMarketAPI.init(config);
+            StartupMetrics.step("local", t);
+        }, startup);
 
-            System.out.println("✅ Bot started successfully.");
+        // 💸 Price snapshot and 📦 catalog both only need Mongo
+        CompletableFuture<Void> prices = mongo.thenRunAsync(() -> {
+            long t = System.currentTimeMillis();
+            PriceUpdater.init(config);
+            PriceUpdater.loadSnapshot();
+            StartupMetrics.step("prices", t);
+        }, startup);
 
+        CompletableFuture<Void> catalog = mongo.thenRunAsync(() -> {
+            long t = System.currentTimeMillis();
+            // 👀 Keep in-memory skins/prices in sync via change streams
+            LocalCaches.start();
+            InventoryRecords.ensureIndexes();
+            PriceAlerts.load();
+            StartupMetrics.step("catalog", t);
+        }, startup);
+
+        // 📝 Slash commands: only diffs are pushed, nothing at all when the cached hash matches
+        CompletableFuture<Void> commands = discord.thenAcceptAsync(j -> {
+            long t = System.currentTimeMillis();
+            CommandRegistry.sync(j, config.guildId);
+            StartupMetrics.step("commands", t);
+        }, startup).exceptionally(e -> {
+            Log.error("Startup", "❌ Slash command sync failed", e);
+            return null;
+        });
+
+        JDA jda;
+        try {
+            CompletableFuture.allOf(mongo, discord, local, prices, catalog, commands).join();
+            jda = discord.join();
         } catch (Exception e) {
-            System.err.println("❌ Failed to start bot: " + e.getMessage());
-            e.printStackTrace();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            Log.error("Startup", "❌ Failed to start bot", cause);
+            Log.flush();
+            System.exit(1);
             return;
+        } finally {
+            startup.shutdown();
         }
 
+        // 💬 Only take interactions once everything they touch is ready
+        jda.addEventListener(
+                new SlashCommandListener(),     // /case, /inventory, /refreshprices, etc.
+                new ButtonListener(config)      // case open button interactions
+        );
+        StartupMetrics.ready();
+        Log.info("Startup", "✅ Bot started successfully");
+
+        // 🔔 Paced alert DMs
+        PriceAlerts.start(jda, config.getInt("ALERT_DMS_PER_SEC", 4));
+
+        // 🏆 Periodic leaderboard checkpoints
+        Leaderboards.start();
+
+        // 📊 Per-guild daily stats rollups for /stats
+        GuildStats.start(config.getLong("STATS_ROLLUP_MS", 60_000));
+
         // 💸 Start the price updater in the background
-        try {
-            // Load refresh interval from .env or default to 300000 ms (5 minutes)
-            int refreshInterval = 300000; // 5 minutes
-            String envValue = dotenv.get("PRICE_REFRESH_MS");
-
-            if (envValue != null && !envValue.isBlank()) {
-                try {
-                    refreshInterval = Integer.parseInt(envValue.trim());
-                } catch (NumberFormatException ignored) {
-                    System.err.println("⚠️ Invalid PRICE_REFRESH_MS in .env, using default 300000 ms (5 min)");
-                }
-            }
+        Log.info("Startup", "🌀 Starting single-threaded PriceUpdater", "intervalMs", config.priceRefreshMs);
+        Thread updater = new Thread(new PriceUpdater(config.priceRefreshMs, 1, 0), "price-updater");
+        updater.setDaemon(true);
+        updater.start();
 
-            System.out.printf("🌀 Starting single-threaded PriceUpdater (%d ms delay between calls)%n", refreshInterval);
-            new Thread(new PriceUpdater(refreshInterval, 1, 0)).start();
+        // 🎯 Background CSFloat repricing, most-opened and stalest items first.
+        // Its results only reach prices through the csfloat source, so skip it otherwise.
+        if (config.csfloatRepricePerMin > 0 && PriceAggregator.sourceIds(config).contains("csfloat")) {
+            Thread repricer = new Thread(new CsFloatRepricer(config.csfloatRepricePerMin), "csfloat-repricer");
+            repricer.setDaemon(true);
+            repricer.start();
+        }
 
-        } catch (Exception e) {
-            System.err.println("❌ Failed to start PriceUpdater: " + e.getMessage());
+        // 🗜️ Rewrite old denormalized inventory items to the compact schema, throttled
+        if (!"false".equalsIgnoreCase(config.get("MIGRATE_INVENTORY"))) {
+            Thread migration = new Thread(new InventoryMigration(), "inventory-migration");
+            migration.setDaemon(true);
+            migration.start();
         }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ChangeStreamWatcher.stop();
+            jda.shutdown();
+            MongoUtil.close();
+        }, "shutdown"));
     }
 }
@@ -0,0 +1,241 @@
+package com.example.cs2bot.alerts;
+
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.utils.Log;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import net.dv8tion.jda.api.JDA;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One-shot price alerts ({@code price_alerts}).
+ *
+ * All alerts are held in a per-item index of two sorted threshold maps
+ * (above / below). On each refresh only the items whose price changed are
+ * looked up, and a range query between the old and new price returns exactly
+ * the alerts that were crossed — nothing else is touched. Fired alerts are
+ * deleted and grouped into one DM per user, sent at a paced rate.
+ *
+ * The per-user limit is a counter in {@code alert_counts}, reserved with one
+ * conditional upsert before the insert, so concurrent creates can't overshoot
+ * it. {@link #load()} rebuilds the counters from the stored alerts.
+ */
+public class PriceAlerts {
+
+    public enum Direction { ABOVE, BELOW }
+
+    public record Alert(ObjectId id, String userId, String item, Direction direction, double threshold) {}
+
+    public static final int MAX_PER_USER = 20;
+
+    private static final class ItemAlerts {
+        final NavigableMap<Double, List<Alert>> above = new TreeMap<>();
+        final NavigableMap<Double, List<Alert>> below = new TreeMap<>();
+    }
+
+    private static final Map<String, ItemAlerts> index = new ConcurrentHashMap<>();
+    private static final LinkedBlockingQueue<Map.Entry<String, List<String>>> outbox = new LinkedBlockingQueue<>();
+
+    private static volatile JDA jda;
+
+    private static MongoCollection<Document> collection() {
+        return MongoUtil.getDB().getCollection("price_alerts");
+    }
+
+    private static MongoCollection<Document> counts() {
+        return MongoUtil.getDB().getCollection("alert_counts");
+    }
+
+    /** Load every stored alert into the index. Needs {@link MongoUtil#init} first. */
+    public static void load() {
+        collection().createIndex(Indexes.ascending("user_id"));
+        int n = 0;
+        Map<String, Integer> perUser = new HashMap<>();
+        for (Document d : collection().find()) {
+            Alert a = fromDocument(d);
+            if (a != null) {
+                add(a);
+                perUser.merge(a.userId(), 1, Integer::sum);
+                n++;
+            }
+        }
+
+        // Counters may be missing (older data) or off after a failed delete: reset them from the truth
+        counts().deleteMany(Filters.nin("_id", perUser.keySet()));
+        if (!perUser.isEmpty()) {
+            List<WriteModel<Document>> ops = new ArrayList<>(perUser.size());
+            perUser.forEach((user, count) -> ops.add(new ReplaceOneModel<>(Filters.eq("_id", user),
+                    new Document("_id", user).append("count", count), new ReplaceOptions().upsert(true))));
+            counts().bulkWrite(ops, new BulkWriteOptions().ordered(false));
+        }
+        Log.info("Alerts", "🔔 Loaded price alerts", "count", n, "users", perUser.size());
+    }
+
+    /** Start delivering DMs, at most {@code dmsPerSecond}. */
+    public static void start(JDA client, int dmsPerSecond) {
+        jda = client;
+        ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alert-dms");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, 1000L / Math.max(1, dmsPerSecond));
+        sender.scheduleAtFixedRate(PriceAlerts::sendNext, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Store and index a new alert. Returns null when the user is at {@link #MAX_PER_USER}. */
+    public static Alert create(String userId, String item, Direction direction, double threshold) {
+        if (!reserveSlot(userId)) return null;
+        Alert a = new Alert(new ObjectId(), userId, item, direction, threshold);
+        try {
+            collection().insertOne(new Document("_id", a.id())
+                    .append("user_id", userId)
+                    .append("item", item)
+                    .append("direction", direction.name().toLowerCase())
+                    .append("threshold", threshold)
+                    .append("created_at", new Date()));
+        } catch (RuntimeException e) {
+            counts().updateOne(Filters.eq("_id", userId), Updates.inc("count", -1));
+            throw e;
+        }
+        add(a);
+        return a;
+    }
+
+    /**
+     * Take one of the user's alert slots. The filter only matches below the
+     * limit; at the limit the upsert collides with the existing counter on
+     * {@code _id} and we report the user as full.
+     */
+    private static boolean reserveSlot(String userId) {
+        try {
+            counts().updateOne(
+                    Filters.and(Filters.eq("_id", userId), Filters.lt("count", MAX_PER_USER)),
+                    Updates.inc("count", 1),
+                    new UpdateOptions().upsert(true));
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) return false;
+            throw e;
+        }
+    }
+
+    /**
+     * Match a refresh's changed prices against the index. {@code previous}
+     * holds the old price of each changed item (absent for new items).
+     */
+    public static void onPricesChanged(Map<String, Double> previous, Map<String, Double> changed) {
+        if (index.isEmpty()) return;
+        List<Alert> fired = new ArrayList<>();
+
+        for (Map.Entry<String, Double> e : changed.entrySet()) {
+            double now = e.getValue();
+            Double before = previous.get(e.getKey());
+
+            // compute* runs atomically per item, so adds and matches never interleave
+            index.computeIfPresent(e.getKey(), (item, alerts) -> {
+                // above: crossed upward, before < t <= now
+                if (before == null || now > before) {
+                    drain(before == null ? alerts.above.headMap(now, true)
+                            : alerts.above.subMap(before, false, now, true), fired);
+                }
+                // below: crossed downward, now <= t < before
+                if (before == null || now < before) {
+                    drain(before == null ? alerts.below.tailMap(now, true)
+                            : alerts.below.subMap(now, true, before, false), fired);
+                }
+                return alerts.above.isEmpty() && alerts.below.isEmpty() ? null : alerts;
+            });
+        }
+        if (fired.isEmpty()) return;
+
+        List<ObjectId> ids = new ArrayList<>(fired.size());
+        Map<String, List<String>> byUser = new LinkedHashMap<>();
+        for (Alert a : fired) {
+            ids.add(a.id());
+            byUser.computeIfAbsent(a.userId(), k -> new ArrayList<>()).add(String.format("• **%s** is now %s €%.2f (€%.2f)",
+                    a.item(), a.direction() == Direction.ABOVE ? "above" : "below", a.threshold(), changed.get(a.item())));
+        }
+        outbox.addAll(byUser.entrySet());
+        Log.info("Alerts", "🔔 Alerts fired", "alerts", fired.size(), "users", byUser.size());
+
+        // Runs inside the price refresh: a DB failure here must not stop revaluation after us
+        try {
+            collection().deleteMany(Filters.in("_id", ids));
+            List<WriteModel<Document>> ops = new ArrayList<>(byUser.size());
+            byUser.forEach((user, lines) -> ops.add(new UpdateOneModel<>(
+                    Filters.eq("_id", user), Updates.inc("count", -lines.size()))));
+            counts().bulkWrite(ops, new BulkWriteOptions().ordered(false));
+        } catch (Exception e) {
+            // Left-over documents would fire again after a restart; load() also fixes the counters
+            Log.error("Alerts", "❌ Could not delete fired alerts", e, "alerts", ids.size());
+        }
+    }
+
+    private static void drain(NavigableMap<Double, List<Alert>> range, List<Alert> into) {
+        for (List<Alert> list : range.values()) into.addAll(list);
+        range.clear(); // view: removes from the backing tree
+    }
+
+    private static void sendNext() {
+        JDA client = jda;
+        if (client == null) return;
+        Map.Entry<String, List<String>> dm = outbox.poll();
+        if (dm == null) return;
+
+        String text = "🔔 **Price alert**\n" + String.join("\n", dm.getValue());
+        try {
+            // JDA retries 429s itself; pacing here keeps us well under the global limit
+            client.openPrivateChannelById(dm.getKey())
+                    .flatMap(channel -> channel.sendMessage(text.length() > 2000 ? text.substring(0, 1997) + "..." : text))
+                    .queue(null, err -> Log.warn("Alerts", "⚠️ Could not DM user", "user", dm.getKey(),
+                            "error", err.getMessage()));
+        } catch (Exception e) {
+            Log.warn("Alerts", "⚠️ DM failed", "user", dm.getKey(), "error", e.getMessage());
+        }
+    }
+
+    private static void add(Alert a) {
+        index.compute(a.item(), (item, alerts) -> {
+            if (alerts == null) alerts = new ItemAlerts();
+            NavigableMap<Double, List<Alert>> side = a.direction() == Direction.ABOVE ? alerts.above : alerts.below;
+            side.computeIfAbsent(a.threshold(), k -> new ArrayList<>()).add(a);
+            return alerts;
+        });
+    }
+
+    private static Alert fromDocument(Document d) {
+        try {
+            return new Alert(d.getObjectId("_id"), d.getString("user_id"), d.getString("item"),
+                    Direction.valueOf(d.getString("direction").toUpperCase()),
+                    ((Number) d.get("threshold")).doubleValue());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
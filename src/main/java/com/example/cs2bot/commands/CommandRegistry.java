@@ -0,0 +1,196 @@
+package com.example.cs2bot.commands;
+
+import com.example.cs2bot.stats.GuildStats;
+import com.example.cs2bot.utils.Log;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every slash command the bot serves, defined in one place, and the startup
+ * sync that makes Discord match it.
+ *
+ * A hash of the definitions is cached in {@code .command-cache}; when it
+ * matches, startup makes no command API calls at all. Otherwise the
+ * registered commands are fetched once and compared field by field; only
+ * new, changed or removed commands are sent, and a larger diff is pushed as
+ * one bulk overwrite. With {@code GUILD_ID} set the commands go to that guild
+ * (instant updates while developing), otherwise they are global.
+ */
+public class CommandRegistry {
+
+    private static final Path CACHE_FILE = Path.of(".command-cache");
+    // More differences than this: one bulk overwrite instead of a call per command
+    private static final int MAX_SINGLE_UPDATES = 2;
+
+    public static List<CommandData> definitions() {
+        return List.of(
+                Commands.slash("case", "Open the case menu"),
+                Commands.slash("inventory", "Show how many items and keys you own"),
+                Commands.slash("trade", "Trade items with another player"),
+                Commands.slash("refreshprices", "Refresh all item prices now")
+                        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER)),
+                Commands.slash("leaderboard", "Top pulls and openers")
+                        .addOptions(
+                                new OptionData(OptionType.STRING, "type", "Which board")
+                                        .addChoice("Most valuable pulls", "valuable")
+                                        .addChoice("Most value unboxed", "richest")
+                                        .addChoice("Luckiest openers", "luckiest"),
+                                new OptionData(OptionType.STRING, "scope", "This server or everyone")
+                                        .addChoice("Server", "server")
+                                        .addChoice("Global", "global"),
+                                new OptionData(OptionType.STRING, "period", "Time window")
+                                        .addChoice("All time", "all")
+                                        .addChoice("Today", "today")),
+                Commands.slash("sell", "Sell your latest pull, or everything below a price")
+                        .addOptions(new OptionData(OptionType.NUMBER, "below", "Sell all items worth less than this (€)")
+                                .setMinValue(0.01)),
+                Commands.slash("export", "Download your whole inventory")
+                        .addOptions(new OptionData(OptionType.STRING, "format", "File format")
+                                .addChoice("CSV", "csv")
+                                .addChoice("JSON", "json")),
+                Commands.slash("alert", "Get a DM when an item's price crosses a threshold")
+                        .addOptions(
+                                new OptionData(OptionType.STRING, "item", "Market name, e.g. AK-47 | Redline (Field-Tested)", true),
+                                new OptionData(OptionType.STRING, "direction", "Notify when the price goes...", true)
+                                        .addChoice("above", "above")
+                                        .addChoice("below", "below"),
+                                new OptionData(OptionType.NUMBER, "price", "Threshold in €", true)
+                                        .setMinValue(0.01)),
+                Commands.slash("stats", "Case opening stats for this server")
+                        .setGuildOnly(true)
+                        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER))
+                        .addOptions(new OptionData(OptionType.INTEGER, "days", "How many days back (default 7)")
+                                .setRequiredRange(1, GuildStats.MAX_DAYS))
+        );
+    }
+
+    /** Push only what differs from what Discord already has. Blocks until done. */
+    public static void sync(JDA jda, String guildId) {
+        List<CommandData> defined = definitions();
+        Guild guild = guildId != null ? jda.getGuildById(guildId) : null;
+        if (guildId != null && guild == null) {
+            Log.warn("Commands", "⚠️ GUILD_ID not found, registering globally", "guild", guildId);
+        }
+        String scope = guild != null ? "guild:" + guild.getId() : "global";
+
+        String hash = hash(defined);
+        if ((scope + " " + hash).equals(readCache())) {
+            Log.info("Commands", "✅ Slash commands unchanged", "scope", scope);
+            return;
+        }
+
+        List<Command> registered = guild != null
+                ? guild.retrieveCommands().complete()
+                : jda.retrieveCommands().complete();
+
+        Map<String, Command> byName = new HashMap<>();
+        for (Command c : registered) {
+            if (c.getType() == Command.Type.SLASH) byName.put(c.getName(), c);
+        }
+
+        List<CommandData> changed = new ArrayList<>();
+        for (CommandData data : defined) {
+            Command existing = byName.remove(data.getName());
+            if (existing == null || !signature(CommandData.fromCommand(existing)).equals(signature(data))) {
+                changed.add(data);
+            }
+        }
+        Collection<Command> stale = byName.values();
+
+        if (changed.size() + stale.size() > MAX_SINGLE_UPDATES) {
+            // Replaces the whole set, removing anything not defined
+            if (guild != null) guild.updateCommands().addCommands(defined).complete();
+            else jda.updateCommands().addCommands(defined).complete();
+        } else {
+            for (CommandData data : changed) {
+                if (guild != null) guild.upsertCommand(data).complete();
+                else jda.upsertCommand(data).complete();
+            }
+            for (Command c : stale) {
+                if (guild != null) guild.deleteCommandById(c.getId()).complete();
+                else jda.deleteCommandById(c.getId()).complete();
+            }
+        }
+
+        writeCache(scope + " " + hash);
+        Log.info("Commands", "🔁 Slash commands synced", "scope", scope,
+                "upserted", changed.size(), "deleted", stale.size());
+    }
+
+    private static String hash(List<CommandData> commands) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (CommandData c : commands) {
+                sha.update(signature(c).getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The fields we define, in a fixed order and with numbers normalised, so a
+     * definition and Discord's copy of it compare equal regardless of JSON key
+     * order or defaults the server fills in.
+     */
+    static String signature(CommandData data) {
+        StringBuilder sb = new StringBuilder(data.getName());
+        Long perms = data.getDefaultPermissions().getPermissionsRaw();
+        sb.append('|').append(perms).append('|').append(data.isGuildOnly());
+        if (data instanceof SlashCommandData slash) {
+            sb.append('|').append(slash.getDescription());
+            for (OptionData o : slash.getOptions()) {
+                sb.append("|opt:").append(o.getType()).append(',').append(o.getName())
+                        .append(',').append(o.getDescription())
+                        .append(',').append(o.isRequired()).append(',').append(o.isAutoComplete())
+                        .append(',').append(number(o.getMinValue())).append(',').append(number(o.getMaxValue()))
+                        .append(',').append(o.getMinLength()).append(',').append(o.getMaxLength());
+                for (Command.Choice c : o.getChoices()) {
+                    sb.append(",choice:").append(c.getName()).append('=').append(c.getAsString());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String number(Number n) {
+        return n == null ? "null" : Double.toString(n.doubleValue());
+    }
+
+    private static String readCache() {
+        try {
+            return Files.exists(CACHE_FILE) ? Files.readString(CACHE_FILE).trim() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void writeCache(String value) {
+        try {
+            Files.writeString(CACHE_FILE, value);
+        } catch (Exception e) {
+            Log.warn("Commands", "⚠️ Could not write command cache", "error", e.getMessage());
+        }
+    }
+}
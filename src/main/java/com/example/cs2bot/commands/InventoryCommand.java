@@ -1,7 +1,7 @@
 package com.example.cs2bot.commands;
 
-import com.example.cs2bot.db.MongoUtil;
-import com.mongodb.client.MongoCollection;
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.repo.Repositories;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -15,16 +15,10 @@ public class InventoryCommand extends ListenerAdapter {
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
         if (!event.getName().equals("inventory")) return;
 
-        // ✅ Use the correct collection name: "inventory"
-        MongoCollection<Document> inventory = MongoUtil.getDB().getCollection("inventory");
-
         String userId = event.getUser().getId();
 
         // ✅ Find all items owned by this user, sorted newest first
-        List<Document> items = inventory.find(new Document("user_id", userId))
-                .sort(new Document("opened_at", -1))
-                .limit(10)
-                .into(new java.util.ArrayList<>());
+        List<Document> items = InventoryRecords.resolveAll(Repositories.inventory().recent(userId, 10));
 
         if (items.isEmpty()) {
             event.reply("📦 You have no items in your inventory yet! Try opening a case.")
@@ -43,7 +37,7 @@ public class InventoryCommand extends ListenerAdapter {
             String name = item.getString("name");
             String rarity = item.getString("rarity");
             String wear = item.getString("wear");
-            Double price = item.getDouble("price");
+            double value = InventoryRecords.currentValue(item);
             Double fl = item.getDouble("float");
 
             desc.append(String.format(
@@ -52,7 +46,7 @@ public class InventoryCommand extends ListenerAdapter {
                     wear != null ? wear : "Unknown",
                     rarity != null ? rarity : "Unknown",
                     fl != null ? fl : 0.0,
-                    price != null ? price : 0.0
+                    value
             ));
         }
 
@@ -0,0 +1,92 @@
+package com.example.cs2bot.config;
+
+import com.example.cs2bot.utils.Log;
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.util.Map;
+
+/**
+ * All bot settings, read once from {@code .env} / the process environment at
+ * startup and passed explicitly to every component that needs them.
+ */
+public final class BotConfig {
+
+    private final Dotenv env;
+    private final Map<String, String> overrides;
+
+    public final String botToken;
+    public final String mongoUri;
+    public final String mongoDatabase;
+    public final String guildId;
+    public final String steamApiKey;
+    public final String csfloatKey;
+    public final String logLevel;
+
+    public final int priceRefreshMs;
+    public final int csfloatRepricePerMin;
+
+    private BotConfig(Dotenv env, Map<String, String> overrides) {
+        this.env = env;
+        this.overrides = overrides;
+        this.botToken = get("BOT_TOKEN");
+        this.mongoUri = get("MONGO_URI");
+        this.mongoDatabase = getOrDefault("MONGO_DB", "cs2_case_bot");
+        this.guildId = get("GUILD_ID");
+        this.steamApiKey = get("STEAM_API_KEY");
+        this.csfloatKey = get("CSFLOAT_KEY");
+        this.logLevel = getOrDefault("LOG_LEVEL", "INFO");
+        this.priceRefreshMs = getInt("PRICE_REFRESH_MS", 300_000);
+        this.csfloatRepricePerMin = getInt("CSFLOAT_REPRICE_PER_MIN", 20);
+    }
+
+    /** Load {@code .env} from the working directory (optional) merged with the environment. */
+    public static BotConfig load() {
+        return load(Map.of());
+    }
+
+    /** Like {@link #load()}, with {@code overrides} taking precedence (tools and load tests). */
+    public static BotConfig load(Map<String, String> overrides) {
+        return new BotConfig(Dotenv.configure()
+                .directory(System.getProperty("user.dir"))
+                .ignoreIfMalformed()
+                .ignoreIfMissing()
+                .load(), Map.copyOf(overrides));
+    }
+
+    /** Raw value, or null when unset or blank. For keys built at runtime (e.g. per-button limits). */
+    public String get(String key) {
+        String v = overrides.containsKey(key) ? overrides.get(key) : env.get(key);
+        return v != null && !v.isBlank() ? v.trim() : null;
+    }
+
+    public String getOrDefault(String key, String fallback) {
+        String v = get(key);
+        return v != null ? v : fallback;
+    }
+
+    /** @throws IllegalArgumentException if the value doesn't fit in an int */
+    public int getInt(String key, int fallback) {
+        long v = getLong(key, fallback);
+        try {
+            return Math.toIntExact(v);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(key + " is out of int range: " + v);
+        }
+    }
+
+    public long getLong(String key, long fallback) {
+        String v = get(key);
+        if (v == null) return fallback;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            Log.warn("Config", "⚠️ Invalid number in .env, using default", "key", key, "default", fallback);
+            return fallback;
+        }
+    }
+
+    public static String mask(String secret) {
+        if (secret == null) return "❌ MISSING";
+        return secret.length() <= 6 ? "******" : secret.substring(0, 6) + "********";
+    }
+}
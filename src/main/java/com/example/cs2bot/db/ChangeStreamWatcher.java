@@ -0,0 +1,241 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.Log;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails MongoDB change streams for cached collections and pushes every
+ * insert/update/delete into the registered local caches.
+ *
+ * Resume tokens are stored in {@code change_stream_tokens} so a restart picks
+ * up where the last run stopped instead of resetting every cache.
+ * Change streams need a replica set; on a standalone server the watcher logs
+ * a warning and caches keep reading through to Mongo.
+ */
+public class ChangeStreamWatcher {
+
+    /** A local cache that can be kept in sync with one collection. */
+    public interface Sink {
+        /** Inserted, replaced or updated document (full post-image). */
+        void upsert(Object id, Document doc);
+
+        /** Document was deleted. */
+        void remove(Object id);
+
+        /** Stream could not be resumed — drop or reload everything. */
+        void reset();
+
+        /** Stream is (not) currently delivering events. */
+        default void setLive(boolean live) {}
+    }
+
+    private static final String TOKEN_COLLECTION = "change_stream_tokens";
+    private static final int TOKEN_SAVE_EVERY = 100;
+    private static final long TOKEN_SAVE_MS = 5_000;
+    private static final long RETRY_MIN_MS = 1_000;
+    private static final long RETRY_MAX_MS = 60_000;
+
+    // Server error codes that mean the stored token is useless
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int INVALID_RESUME_TOKEN = 260;
+    // Change streams unsupported (standalone server)
+    private static final int NOT_REPLICA_SET = 40573;
+
+    private static final Map<String, List<Sink>> sinks = new ConcurrentHashMap<>();
+    private static final Map<String, Thread> threads = new ConcurrentHashMap<>();
+    private static volatile boolean running = false;
+
+    /** Register a cache for a collection. Call before {@link #start()}. */
+    public static void register(String collection, Sink sink) {
+        sinks.computeIfAbsent(collection, c -> new CopyOnWriteArrayList<>()).add(sink);
+    }
+
+    /** Start one daemon watcher thread per registered collection. */
+    public static synchronized void start() {
+        if (running) return;
+        running = true;
+        for (String collection : sinks.keySet()) {
+            Thread t = new Thread(() -> watchLoop(collection), "changestream-" + collection);
+            t.setDaemon(true);
+            threads.put(collection, t);
+            t.start();
+        }
+        Log.info("ChangeStream", "👀 Watching collections", "collections", sinks.keySet());
+    }
+
+    public static synchronized void stop() {
+        running = false;
+        threads.values().forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    private static void watchLoop(String collection) {
+        List<Sink> targets = sinks.get(collection);
+        MongoCollection<Document> tokens = MongoUtil.getDB().getCollection(TOKEN_COLLECTION);
+        long backoff = RETRY_MIN_MS;
+
+        while (running) {
+            BsonDocument token = loadToken(tokens, collection);
+
+            ChangeStreamIterable<Document> stream = MongoUtil.getDB()
+                    .getCollection(collection)
+                    .watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (token != null) stream = stream.resumeAfter(token);
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                // Cursor is open before the reload, so nothing written in between is missed
+                if (token == null) {
+                    targets.forEach(Sink::reset);
+                    Log.info("ChangeStream", "🔄 No resume token, caches reset", "collection", collection);
+                } else {
+                    Log.info("ChangeStream", "▶️ Resumed from stored token", "collection", collection);
+                }
+                targets.forEach(s -> s.setLive(true));
+                backoff = RETRY_MIN_MS;
+
+                int pending = 0;
+                long lastSave = System.currentTimeMillis();
+
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        if (!apply(collection, targets, change)) {
+                            // drop/rename/invalidate: stream is dead. Forget the token (and never
+                            // save it again below) so the next pass reopens fresh and resets the caches.
+                            targets.forEach(s -> s.setLive(false));
+                            deleteToken(tokens, collection);
+                            pending = 0;
+                            break;
+                        }
+                        pending++;
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (pending > 0 && (pending >= TOKEN_SAVE_EVERY || now - lastSave >= TOKEN_SAVE_MS)) {
+                        saveToken(tokens, collection, cursor.getResumeToken());
+                        pending = 0;
+                        lastSave = now;
+                    }
+                }
+
+                if (pending > 0) saveToken(tokens, collection, cursor.getResumeToken());
+
+            } catch (MongoCommandException e) {
+                targets.forEach(s -> s.setLive(false));
+                int code = e.getErrorCode();
+                if (code == CHANGE_STREAM_HISTORY_LOST || code == INVALID_RESUME_TOKEN) {
+                    Log.warn("ChangeStream", "⚠️ Resume token expired, full reload", "collection", collection);
+                    deleteToken(tokens, collection);
+                    continue;
+                }
+                if (code == NOT_REPLICA_SET) {
+                    Log.warn("ChangeStream", "⚠️ Change streams need a replica set — caches disabled",
+                            "collection", collection);
+                    return;
+                }
+                Log.warn("ChangeStream", "⚠️ Stream failed, retrying", "collection", collection, "error", e.getMessage());
+                backoff = sleepBackoff(backoff);
+            } catch (Exception e) {
+                targets.forEach(s -> s.setLive(false));
+                if (!running) break;
+                Log.warn("ChangeStream", "⚠️ Stream failed, retrying", "collection", collection, "error", e.getMessage());
+                backoff = sleepBackoff(backoff);
+            }
+        }
+
+        targets.forEach(s -> s.setLive(false));
+    }
+
+    /** @return false when the stream can no longer continue */
+    private static boolean apply(String collection, List<Sink> targets, ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Object id = idOf(change.getDocumentKey());
+                Document full = change.getFullDocument();
+                // Update lookup can miss if the document was deleted right after
+                if (full == null) targets.forEach(s -> s.remove(id));
+                else targets.forEach(s -> s.upsert(id, full));
+                return true;
+            }
+            case DELETE -> {
+                Object id = idOf(change.getDocumentKey());
+                targets.forEach(s -> s.remove(id));
+                return true;
+            }
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                Log.info("ChangeStream", "🗑️ Collection gone — restarting stream",
+                        "collection", collection, "op", change.getOperationType());
+                return false;
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private static Object idOf(BsonDocument key) {
+        if (key == null || !key.containsKey("_id")) return null;
+        BsonValue id = key.get("_id");
+        if (id.isString()) return id.asString().getValue();
+        if (id.isObjectId()) return id.asObjectId().getValue();
+        if (id.isInt32()) return id.asInt32().getValue();
+        if (id.isInt64()) return id.asInt64().getValue();
+        // Fall back to the driver's own conversion for anything exotic
+        return Document.parse(key.toJson()).get("_id");
+    }
+
+    private static BsonDocument loadToken(MongoCollection<Document> tokens, String collection) {
+        try {
+            Document doc = tokens.find(Filters.eq("_id", collection)).first();
+            if (doc == null || !(doc.get("token") instanceof Document)) return null;
+            return ((Document) doc.get("token")).toBsonDocument();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void saveToken(MongoCollection<Document> tokens, String collection, BsonDocument token) {
+        if (token == null) return;
+        try {
+            tokens.replaceOne(Filters.eq("_id", collection),
+                    new Document("_id", collection).append("token", Document.parse(token.toJson())),
+                    new ReplaceOptions().upsert(true));
+        } catch (Exception e) {
+            Log.warn("ChangeStream", "⚠️ Could not save resume token", "collection", collection, "error", e.getMessage());
+        }
+    }
+
+    private static void deleteToken(MongoCollection<Document> tokens, String collection) {
+        try {
+            tokens.deleteOne(Filters.eq("_id", collection));
+        } catch (Exception ignored) {}
+    }
+
+    private static long sleepBackoff(long backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, RETRY_MAX_MS);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.Log;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full in-memory copy of a small collection (skins, prices), kept fresh by
+ * {@link ChangeStreamWatcher}. Reads are only trusted while the stream is live;
+ * callers should fall back to Mongo when {@link #isLive()} is false.
+ */
+public class CollectionCache implements ChangeStreamWatcher.Sink {
+
+    private final String collection;
+    private final Map<Object, Document> docs = new ConcurrentHashMap<>();
+
+    // Copy-on-read snapshot for random picks; rebuilt only after a change
+    private volatile List<Document> snapshot = Collections.emptyList();
+    private volatile boolean dirty = true;
+    private volatile boolean live = false;
+
+    public CollectionCache(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    public Document get(Object id) {
+        return id == null ? null : docs.get(id);
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /** Immutable view of all cached documents. */
+    public List<Document> values() {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty) {
+                    // Clear first so a concurrent upsert re-marks us dirty
+                    dirty = false;
+                    snapshot = Collections.unmodifiableList(new ArrayList<>(docs.values()));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void upsert(Object id, Document doc) {
+        if (id == null) return;
+        docs.put(id, doc);
+        dirty = true;
+    }
+
+    @Override
+    public void remove(Object id) {
+        if (id == null) return;
+        if (docs.remove(id) != null) dirty = true;
+    }
+
+    @Override
+    public void reset() {
+        Map<Object, Document> fresh = new ConcurrentHashMap<>();
+        for (Document d : MongoUtil.getDB().getCollection(collection).find()) {
+            Object id = d.get("_id");
+            if (id != null) fresh.put(id, d);
+        }
+        docs.keySet().retainAll(fresh.keySet());
+        docs.putAll(fresh);
+        dirty = true;
+        Log.info("Cache", "📥 Loaded documents", "count", docs.size(), "collection", collection);
+    }
+
+    @Override
+    public void setLive(boolean live) {
+        // A cache that never loaded is useless even if the stream resumed
+        if (live && docs.isEmpty()) reset();
+        this.live = live;
+    }
+}
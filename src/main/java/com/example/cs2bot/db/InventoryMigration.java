@@ -0,0 +1,106 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.Log;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Online migration of old, fully denormalized inventory documents to the
+ * compact {@link InventoryRecords} schema.
+ *
+ * Each legacy item is matched to its catalog skin by name and wear, then
+ * rewritten in place with {@code skin_id}/{@code stattrak} set and the copied
+ * display fields removed. Work happens in small unordered bulk batches with
+ * a pause between them so interactive traffic keeps priority. Items whose
+ * skin is no longer in the catalog are left untouched.
+ */
+public class InventoryMigration implements Runnable {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long PAUSE_MS = 200;
+
+    @Override
+    public void run() {
+        try {
+            migrate();
+        } catch (Exception e) {
+            Log.error("InventoryMigration", "❌ Migration stopped", e);
+        }
+    }
+
+    private void migrate() throws InterruptedException {
+        MongoCollection<Document> inventory = MongoUtil.getDB().getCollection("inventory");
+        Map<String, Object> skinIds = catalogIndex();
+        if (skinIds.isEmpty()) return;
+
+        Bson legacy = Filters.and(Filters.exists("skin_id", false), Filters.exists("name", true));
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        long migrated = 0, unmatched = 0;
+
+        for (Document item : inventory.find(legacy).batchSize(BATCH_SIZE)) {
+            Object skinId = skinIds.get(key(item.getString("name"), item.getString("wear")));
+            if (skinId == null) {
+                unmatched++;
+                continue;
+            }
+
+            boolean statTrak = item.getString("name") != null && item.getString("name").contains("StatTrak");
+            batch.add(new UpdateOneModel<>(Filters.eq("_id", item.get("_id")), Updates.combine(
+                    Updates.set("skin_id", skinId),
+                    Updates.set("stattrak", statTrak),
+                    Updates.unset("case"),
+                    Updates.unset("name"),
+                    Updates.unset("wear"),
+                    Updates.unset("rarity"),
+                    Updates.unset("image"))));
+
+            if (batch.size() >= BATCH_SIZE) {
+                migrated += flush(inventory, batch);
+                Thread.sleep(PAUSE_MS);
+            }
+        }
+        migrated += flush(inventory, batch);
+
+        if (migrated > 0 || unmatched > 0) {
+            Log.info("InventoryMigration", "✅ Inventory compacted", "migrated", migrated, "unmatched", unmatched);
+        }
+    }
+
+    /** name|wear → skin _id for the whole catalog. */
+    private static Map<String, Object> catalogIndex() {
+        Map<String, Object> index = new HashMap<>();
+        Iterable<Document> skins = LocalCaches.SKINS.isLive()
+                ? LocalCaches.SKINS.values()
+                : MongoUtil.getDB().getCollection("skins").find();
+        for (Document skin : skins) {
+            index.putIfAbsent(key(skin.getString("name"), skin.getString("wear")), skin.get("_id"));
+        }
+        return index;
+    }
+
+    /** Catalog names have no StatTrak variants, so the prefix is dropped (the flag is kept separately). */
+    private static String key(String name, String wear) {
+        // Strip before ?→★: mangled legacy names may spell it "StatTrak? "
+        String n = name == null ? "" : name.replaceFirst("StatTrak[™?]? ", "").replace("?", "★").trim();
+        return n + "|" + (wear == null || wear.isBlank() ? "Unknown" : wear);
+    }
+
+    private static long flush(MongoCollection<Document> inventory, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) return 0;
+        int n = batch.size();
+        inventory.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+        batch.clear();
+        return n;
+    }
+}
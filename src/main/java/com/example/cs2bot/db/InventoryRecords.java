@@ -0,0 +1,91 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.repo.Repositories;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+
+import java.util.*;
+
+/**
+ * Compact inventory schema.
+ *
+ * A stored pull only holds what is specific to it:
+ * {@code user_id, guild_id, skin_id, float, stattrak, price, opened_at,
+ * interaction_id} ({@code guild_id} is absent for pulls made in DMs), plus
+ * {@code value} once a price refresh has revalued it. {@code price} is always
+ * the price at open time. Name, wear,
+ * rarity and image come from the skin catalog when the item is displayed.
+ * Documents written before the migration still carry those fields and are
+ * passed through unchanged.
+ */
+public class InventoryRecords {
+
+    /**
+     * Per-user newest-first index for inventory views and exports, a
+     * {@code skin_id} index for revaluation after price changes, and an
+     * {@code opened_at} index for the stats rollup windows. {@code interaction_id}
+     * is unique so a redelivered click can never store a second item.
+     */
+    public static void ensureIndexes() {
+        var inventory = MongoUtil.getDB().getCollection("inventory");
+        inventory.createIndex(Indexes.compoundIndex(Indexes.ascending("user_id"), Indexes.descending("opened_at")));
+        inventory.createIndex(Indexes.compoundIndex(Indexes.ascending("skin_id"), Indexes.ascending("stattrak")));
+        inventory.createIndex(Indexes.ascending("opened_at"));
+        inventory.createIndex(Indexes.ascending("interaction_id"), new IndexOptions().unique(true).sparse(true));
+    }
+
+    public static Document compact(long interactionId, String userId, String guildId, Object skinId,
+                                   double wearFloat, boolean statTrak, double price) {
+        Document d = new Document("user_id", userId);
+        if (guildId != null) d.append("guild_id", guildId);
+        return d.append("skin_id", skinId)
+                .append("float", wearFloat)
+                .append("stattrak", statTrak)
+                .append("price", price)
+                .append("opened_at", new Date())
+                .append("interaction_id", interactionId);
+    }
+
+    public static boolean isCompact(Document item) {
+        return item.containsKey("skin_id") && !item.containsKey("name");
+    }
+
+    /** Display-ready copy of every item: catalog fields merged in, one Mongo round trip at most. */
+    public static List<Document> resolveAll(List<Document> items) {
+        Set<Object> ids = new HashSet<>();
+        for (Document item : items) {
+            if (isCompact(item)) ids.add(item.get("skin_id"));
+        }
+        Map<Object, Document> skins = ids.isEmpty() ? Map.of() : Repositories.skins().byIds(ids);
+
+        List<Document> resolved = new ArrayList<>(items.size());
+        for (Document item : items) {
+            resolved.add(isCompact(item) ? merge(item, skins.get(item.get("skin_id"))) : item);
+        }
+        return resolved;
+    }
+
+    /** Current worth in EUR: the revalued {@code value} if set, else the price at open. */
+    public static double currentValue(Document item) {
+        if (item.get("value") instanceof Number n) return n.doubleValue();
+        return item.get("price") instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    /** Market name of a StatTrak copy — knives/gloves put it after the star: "★ StatTrak™ Karambit | ...". */
+    public static String statTrakName(String name) {
+        if (name == null || name.contains("StatTrak")) return name;
+        if (name.startsWith("★ ")) return "★ StatTrak™ " + name.substring(2);
+        return "StatTrak™ " + name;
+    }
+
+    private static Document merge(Document item, Document skin) {
+        Document d = new Document(item);
+        String name = skin != null ? skin.getString("name") : null;
+        d.append("name", name != null ? name.replace("?", "★").trim() : "Unknown");
+        d.append("wear", skin != null && skin.getString("wear") != null ? skin.getString("wear") : "Unknown");
+        d.append("rarity", skin != null && skin.getString("rarity") != null ? skin.getString("rarity") : "Unknown");
+        if (skin != null && skin.getString("image") != null) d.append("image", skin.getString("image"));
+        return d;
+    }
+}
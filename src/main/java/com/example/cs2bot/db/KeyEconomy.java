@@ -0,0 +1,52 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.repo.Repositories;
+import com.example.cs2bot.repo.UserRepository;
+import com.example.cs2bot.utils.Log;
+import org.bson.Document;
+
+/**
+ * Case keys stored on {@code users.keys}.
+ *
+ * Every change is a single conditional {@code findOneAndUpdate}, so concurrent
+ * clicks from the same user can never spend a key twice or drive the balance
+ * below zero — the filter ({@code keys > 0}, or the grant cooldown) is checked
+ * and the counter moved in one server-side step. Opening a case spends the key
+ * and stores the item in one transaction (see {@link UserRepository#openWithKey}).
+ */
+public class KeyEconomy {
+
+    /** Returned by {@link #grant} while the cooldown is still running. */
+    public static final int ON_COOLDOWN = UserRepository.ON_COOLDOWN;
+
+    /**
+     * Takes one key and records the pull, atomically. Writes nothing when the
+     * user has no keys or the item was already stored for this interaction.
+     */
+    public static UserRepository.OpenResult openWithKey(String userId, Document item) {
+        UserRepository.OpenResult result = Repositories.users().openWithKey(userId, item);
+        if (result == UserRepository.OpenResult.DUPLICATE) {
+            Log.info("Keys", "↩️ Duplicate open rejected by idempotency key", "user", userId,
+                    "interaction", item.get("interaction_id"));
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code amount} keys if the user's last grant is older than
+     * {@code cooldownMs}. Creates the user on first grant. Returns the new
+     * balance, or {@link #ON_COOLDOWN}.
+     */
+    public static int grant(String userId, int amount, long cooldownMs) {
+        return Repositories.users().grantKeys(userId, amount, cooldownMs);
+    }
+
+    /** Time left until the next grant, in ms (0 when one is available). */
+    public static long cooldownLeft(String userId, long cooldownMs) {
+        return Repositories.users().cooldownLeft(userId, cooldownMs);
+    }
+
+    public static int balance(String userId) {
+        return Repositories.users().keys(userId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.SteamPriceCache;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * In-process copies of hot collections, kept in sync by {@link ChangeStreamWatcher}.
+ */
+public class LocalCaches {
+
+    public static final CollectionCache SKINS = new CollectionCache("skins");
+    public static final CollectionCache PRICES = new CollectionCache("prices");
+
+    /** Register every cache and start the watchers. Needs {@link MongoUtil#init} first. */
+    public static void start() {
+        ChangeStreamWatcher.register(SKINS.getCollection(), SKINS);
+        ChangeStreamWatcher.register(PRICES.getCollection(), PRICES);
+        ChangeStreamWatcher.register("price_cache", SteamPriceCache.SINK);
+        ChangeStreamWatcher.start();
+    }
+
+    /** Every skin name in the catalog, from the live cache when possible. */
+    public static Collection<String> skinNames() {
+        Set<String> names = new LinkedHashSet<>();
+        if (SKINS.isLive()) {
+            for (Document d : SKINS.values()) {
+                String n = d.getString("name");
+                if (n != null) names.add(n);
+            }
+        } else if (MongoUtil.getDB() != null) {
+            MongoUtil.getDB().getCollection("skins").distinct("name", String.class).into(names);
+        }
+        return names;
+    }
+}
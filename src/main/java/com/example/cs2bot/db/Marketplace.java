@@ -0,0 +1,141 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.PriceUpdater;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sells inventory items back for in-bot balance ({@code users.balance_cents}).
+ *
+ * Each sale removes the items and credits the user inside one transaction,
+ * so an item can only ever be paid out once — a concurrent click either
+ * finds nothing to delete or hits a write conflict and retries against the
+ * new state. Prices come from {@link PriceUpdater}'s table, falling back to
+ * the price stored at pull time.
+ *
+ * On a standalone server (no transactions, see
+ * {@link MongoUtil#supportsTransactions()}) single sales still rely on the
+ * atomic {@code findOneAndDelete}; bulk sales first claim the items with a
+ * sale ID so only claimed items are paid.
+ */
+public class Marketplace {
+
+    public record Sale(int items, long cents) {}
+
+    private static final Bson ITEM_FIELDS = Projections.include("skin_id", "stattrak", "price", "value", "name");
+
+    private static MongoCollection<Document> inventory() {
+        return MongoUtil.getDB().getCollection("inventory");
+    }
+
+    private static MongoCollection<Document> users() {
+        return MongoUtil.getDB().getCollection("users");
+    }
+
+    /** Sells one item. Returns null if it is gone or not the user's. */
+    public static Sale sellOne(String userId, ObjectId itemId) {
+        // Skip items a standalone sellBelow has already claimed (and will pay for)
+        Bson filter = Filters.and(Filters.eq("_id", itemId), Filters.eq("user_id", userId),
+                Filters.exists("sale_id", false));
+
+        if (MongoUtil.supportsTransactions()) {
+            try (ClientSession session = MongoUtil.getClient().startSession()) {
+                return session.withTransaction(() -> {
+                    Document item = inventory().findOneAndDelete(session, filter);
+                    if (item == null) return null;
+                    long cents = valueCents(item);
+                    users().updateOne(session, Filters.eq("_id", userId), Updates.inc("balance_cents", cents),
+                            new UpdateOptions().upsert(true));
+                    return new Sale(1, cents);
+                });
+            }
+        }
+
+        Document item = inventory().findOneAndDelete(filter);
+        if (item == null) return null;
+        long cents = valueCents(item);
+        credit(userId, cents);
+        return new Sale(1, cents);
+    }
+
+    /**
+     * Sells every item currently worth less than {@code maxCents}. Candidates
+     * are picked from a projected scan priced in memory, then removed and
+     * credited in one batched delete + {@code $inc}.
+     */
+    public static Sale sellBelow(String userId, long maxCents) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (Document item : InventoryRecords.resolveAll(inventory().find(Filters.eq("user_id", userId))
+                .projection(ITEM_FIELDS).batchSize(5000).into(new ArrayList<>()))) {
+            if (item.get("_id") instanceof ObjectId id && valueCents(item) < maxCents) ids.add(id);
+        }
+        if (ids.isEmpty()) return new Sale(0, 0);
+
+        if (MongoUtil.supportsTransactions()) {
+            try (ClientSession session = MongoUtil.getClient().startSession()) {
+                return session.withTransaction(() -> {
+                    Bson owned = Filters.and(Filters.in("_id", ids), Filters.eq("user_id", userId));
+                    List<Document> items = inventory().find(session, owned).projection(ITEM_FIELDS)
+                            .into(new ArrayList<>());
+                    long cents = totalCents(items);
+                    long deleted = inventory().deleteMany(session, owned).getDeletedCount();
+                    if (deleted != items.size()) {
+                        throw new IllegalStateException("Inventory changed during sale");
+                    }
+                    if (cents > 0) {
+                        users().updateOne(session, Filters.eq("_id", userId), Updates.inc("balance_cents", cents),
+                                new UpdateOptions().upsert(true));
+                    }
+                    return new Sale(items.size(), cents);
+                });
+            }
+        }
+
+        // Claim first: whichever sale tags an item is the only one that pays for it
+        ObjectId saleId = new ObjectId();
+        inventory().updateMany(Filters.and(Filters.in("_id", ids), Filters.eq("user_id", userId),
+                Filters.exists("sale_id", false)), Updates.set("sale_id", saleId));
+        List<Document> claimed = inventory().find(Filters.eq("sale_id", saleId)).projection(ITEM_FIELDS)
+                .into(new ArrayList<>());
+        long cents = totalCents(claimed);
+        credit(userId, cents);
+        inventory().deleteMany(Filters.eq("sale_id", saleId));
+        return new Sale(claimed.size(), cents);
+    }
+
+    public static long balanceCents(String userId) {
+        Document d = users().find(Filters.eq("_id", userId)).projection(Projections.include("balance_cents")).first();
+        Object v = d != null ? d.get("balance_cents") : null;
+        return v instanceof Number n ? n.longValue() : 0L;
+    }
+
+    /** Sell price of one item in cents: live price if known, else its last revalued (or open-time) price. */
+    public static long valueCents(Document item) {
+        Document resolved = InventoryRecords.isCompact(item) ? InventoryRecords.resolveAll(List.of(item)).get(0) : item;
+        Double live = PriceUpdater.priceOf(resolved.getString("name"), resolved.getBoolean("stattrak", false));
+        double price = live != null ? live : InventoryRecords.currentValue(resolved);
+        return Math.round(price * 100);
+    }
+
+    private static long totalCents(List<Document> items) {
+        long cents = 0;
+        for (Document item : InventoryRecords.resolveAll(items)) cents += valueCents(item);
+        return cents;
+    }
+
+    private static void credit(String userId, long cents) {
+        if (cents == 0) return;
+        users().updateOne(Filters.eq("_id", userId), Updates.inc("balance_cents", cents),
+                new UpdateOptions().upsert(true));
+    }
+}
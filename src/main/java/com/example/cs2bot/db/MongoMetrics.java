@@ -0,0 +1,185 @@
+package com.example.cs2bot.db;
+
+import com.example.cs2bot.utils.Log;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool and command timings for the shared client.
+ *
+ * Checkout latency is the time a thread waits between asking the pool for a
+ * connection and getting one — when the pool is exhausted this is the wait
+ * queue time. The sync driver raises checkout events on the calling thread,
+ * so a thread-local start time is enough to pair them.
+ */
+public class MongoMetrics implements ConnectionPoolListener, CommandListener {
+
+    /** Count / total / max of one timed operation, in nanoseconds. */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double avgMs() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        public double maxMs() {
+            return maxNanos.get() / 1e6;
+        }
+
+        /** Clears the max so each report shows the worst case of its own window. */
+        double takeMaxMs() {
+            return maxNanos.getAndSet(0) / 1e6;
+        }
+    }
+
+    public static final MongoMetrics INSTANCE = new MongoMetrics();
+
+    private final ThreadLocal<Long> checkoutStart = new ThreadLocal<>();
+    private final Timer checkout = new Timer();
+    private final Map<String, Timer> commands = new ConcurrentHashMap<>();
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder checkoutFailures = new LongAdder();
+    private final LongAdder commandFailures = new LongAdder();
+
+    private MongoMetrics() {}
+
+    // --- pool ---
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+        checkoutStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        inUse.incrementAndGet();
+        Long start = checkoutStart.get();
+        if (start != null) {
+            checkout.record(System.nanoTime() - start);
+            checkoutStart.remove();
+        }
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        checkoutFailures.increment();
+        checkoutStart.remove();
+        Log.warn("Mongo", "⚠️ Connection checkout failed", "reason", event.getReason(), "inUse", inUse.get(),
+                "waiting", waiting.get());
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        inUse.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    // --- commands ---
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        commands.computeIfAbsent(event.getCommandName(), k -> new Timer())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        commandFailures.increment();
+        commands.computeIfAbsent(event.getCommandName(), k -> new Timer())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    // --- reading ---
+
+    public Timer checkout() {
+        return checkout;
+    }
+
+    public Map<String, Timer> commands() {
+        return commands;
+    }
+
+    public int openConnections() {
+        return open.get();
+    }
+
+    public int inUse() {
+        return inUse.get();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public long checkoutFailures() {
+        return checkoutFailures.sum();
+    }
+
+    /** Log pool pressure and the slowest commands every {@code intervalMs}. */
+    public void startReporting(long intervalMs) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mongo-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void report() {
+        Log.info("Mongo", "📈 Pool", "open", open.get(), "inUse", inUse.get(), "waiting", waiting.get(),
+                "checkouts", checkout.count(), "checkoutAvgMs", String.format("%.3f", checkout.avgMs()),
+                "checkoutMaxMs", String.format("%.3f", checkout.takeMaxMs()),
+                "checkoutFailures", checkoutFailures.sum(), "commandFailures", commandFailures.sum());
+        commands.forEach((name, t) -> {
+            if (t.count() > 0) {
+                Log.debug("Mongo", "⏱️ Command", "name", name, "count", t.count(),
+                        "avgMs", String.format("%.3f", t.avgMs()), "maxMs", String.format("%.3f", t.takeMaxMs()));
+            }
+        });
+    }
+}
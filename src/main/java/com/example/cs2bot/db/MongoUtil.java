@@ -1,25 +1,118 @@
 package com.example.cs2bot.db;
 
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.utils.Log;
 import com.mongodb.client.*;
 import org.bson.Document;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
 import com.mongodb.ConnectionString;
+import com.mongodb.ReadPreference;
+import com.mongodb.connection.ClusterType;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one MongoClient every component shares.
+ *
+ * Pool size, timeouts and wire compression come from config (see README),
+ * and {@link MongoMetrics} is attached as pool and command listener.
+ * {@link #getReadDB()} is the same database with secondary-preferred reads,
+ * for views that tolerate a few seconds of replication lag.
+ */
 public class MongoUtil {
     private static MongoClient client;
     private static MongoDatabase db;
+    private static MongoDatabase readDb;
+    private static volatile Boolean transactions;
+
+    /** Tuned client from config. Call once at startup. */
+    public static void init(BotConfig config) {
+        ConnectionString connString = new ConnectionString(config.mongoUri);
+
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String c : config.getOrDefault("MONGO_COMPRESSORS", "zstd,snappy,zlib").split(",")) {
+            switch (c.trim().toLowerCase()) {
+                case "zstd" -> compressors.add(MongoCompressor.createZstdCompressor());
+                case "snappy" -> compressors.add(MongoCompressor.createSnappyCompressor());
+                case "zlib" -> compressors.add(MongoCompressor.createZlibCompressor());
+                case "", "none" -> { }
+                default -> Log.warn("Mongo", "⚠️ Unknown compressor, ignored", "compressor", c);
+            }
+        }
 
-    public static void init(String uri, String dbName) {
-        ConnectionString connString = new ConnectionString(uri);
         MongoClientSettings settings = MongoClientSettings.builder()
                 .applyConnectionString(connString)
+                .applicationName("cs2-case-bot")
+                .compressorList(compressors)
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(config.getInt("MONGO_POOL_MAX", 50))
+                        .minSize(config.getInt("MONGO_POOL_MIN", 5))
+                        .maxConnecting(config.getInt("MONGO_MAX_CONNECTING", 4))
+                        .maxWaitTime(config.getLong("MONGO_POOL_WAIT_MS", 2_000), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(config.getLong("MONGO_MAX_IDLE_MS", 300_000), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(MongoMetrics.INSTANCE))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) config.getLong("MONGO_CONNECT_TIMEOUT_MS", 5_000), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(config.getLong("MONGO_SELECTION_TIMEOUT_MS", 5_000), TimeUnit.MILLISECONDS))
+                .addCommandListener(MongoMetrics.INSTANCE)
                 .build();
+
+        open(settings, config.mongoDatabase, !"false".equalsIgnoreCase(config.get("MONGO_SECONDARY_READS")));
+    }
+
+    /** Plain client with driver defaults, for one-off tools like the seeder. */
+    public static void init(String uri, String dbName) {
+        open(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .build(), dbName, false);
+    }
+
+    private static void open(MongoClientSettings settings, String dbName, boolean secondaryReads) {
         client = MongoClients.create(settings);
+        transactions = null;
         db = client.getDatabase(dbName);
-        System.out.println("Connected to MongoDB: " + dbName);
+        readDb = secondaryReads
+                ? db.withReadPreference(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS))
+                : db;
+        Log.info("Mongo", "✅ Connected to MongoDB", "db", dbName);
     }
 
     public static MongoDatabase getDB() {
         return db;
     }
+
+    /** Secondary-preferred view of {@link #getDB()} for read-only, lag-tolerant queries. */
+    public static MongoDatabase getReadDB() {
+        return readDb;
+    }
+
+    public static MongoClient getClient() {
+        return client;
+    }
+
+    /**
+     * True on replica sets and sharded clusters. A standalone server has no
+     * transactions — the driver refuses to even send one — so callers pick
+     * their non-transactional path up front. Decided once, after a ping has
+     * made the topology known.
+     */
+    public static boolean supportsTransactions() {
+        Boolean t = transactions;
+        if (t == null) {
+            db.runCommand(new Document("ping", 1));
+            ClusterType type = client.getClusterDescription().getType();
+            t = type == ClusterType.REPLICA_SET || type == ClusterType.SHARDED || type == ClusterType.LOAD_BALANCED;
+            transactions = t;
+            if (!t) Log.warn("Mongo", "⚠️ No transactions on this deployment, using fallbacks", "cluster", type);
+        }
+        return t;
+    }
+
+    public static void close() {
+        if (client != null) client.close();
+    }
 }
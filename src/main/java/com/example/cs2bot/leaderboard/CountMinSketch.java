@@ -0,0 +1,72 @@
+package com.example.cs2bot.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weighted count-min sketch: fixed memory, estimates never under-count.
+ * Used for per-user rare-pull counts on the luckiest board, where only the
+ * top few matter and small over-counts don't change the order.
+ */
+public class CountMinSketch {
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1};
+
+    private final int depth;
+    private final int width;
+    private final double[][] counts;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = Math.min(depth, SEEDS.length);
+        this.width = width;
+        this.counts = new double[this.depth][width];
+    }
+
+    /** Add {@code amount} to {@code key} and return the new estimate. */
+    public synchronized double add(String key, double amount) {
+        double estimate = Double.MAX_VALUE;
+        int h = key.hashCode();
+        for (int i = 0; i < depth; i++) {
+            int col = index(h, i);
+            counts[i][col] += amount;
+            estimate = Math.min(estimate, counts[i][col]);
+        }
+        return estimate;
+    }
+
+    public synchronized double estimate(String key) {
+        double estimate = Double.MAX_VALUE;
+        int h = key.hashCode();
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, counts[i][index(h, i)]);
+        }
+        return estimate;
+    }
+
+    private int index(int hash, int row) {
+        int x = hash * SEEDS[row];
+        x ^= x >>> 16;
+        return (x & 0x7fffffff) % width;
+    }
+
+    /** Rows as lists, for checkpointing to Mongo. */
+    public synchronized List<List<Double>> toRows() {
+        List<List<Double>> rows = new ArrayList<>(depth);
+        for (double[] row : counts) {
+            List<Double> r = new ArrayList<>(width);
+            for (double v : row) r.add(v);
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    public synchronized void loadRows(List<List<Double>> rows) {
+        if (rows == null) return;
+        for (int i = 0; i < Math.min(depth, rows.size()); i++) {
+            List<Double> r = rows.get(i);
+            for (int j = 0; j < Math.min(width, r.size()); j++) {
+                counts[i][j] = r.get(j) != null ? r.get(j) : 0.0;
+            }
+        }
+    }
+}
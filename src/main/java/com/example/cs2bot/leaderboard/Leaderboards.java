@@ -0,0 +1,306 @@
+package com.example.cs2bot.leaderboard;
+
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.utils.Log;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory leaderboards per guild (and globally), for all time and for the
+ * current UTC day. Updated on every case open and checkpointed to the
+ * {@code leaderboards} collection once a minute; nothing here reads
+ * {@code inventory}.
+ *
+ * The richest board ranks users by the value they have unboxed (price at
+ * open time); sales and later revaluation don't change it, so it is titled
+ * "most value unboxed" rather than claiming to show current wealth. It keeps
+ * exact per-user value totals: a sketch sized for
+ * memory would over-count by a share of <em>everyone's</em> value, which on
+ * the global board is larger than most users' own totals. Changed totals are
+ * checkpointed to {@code leaderboard_totals}. The luckiest board only counts
+ * rare pulls, so it uses a fixed-size count-min sketch whose small
+ * over-counts don't reorder the board.
+ *
+ * All-time and today's boards are loaded in the background by {@link #start()};
+ * until that finishes a board is restored on first touch instead.
+ */
+public class Leaderboards {
+
+    public enum Type {
+        VALUABLE("💎 Most valuable unboxes"),
+        RICHEST("💰 Most value unboxed"),
+        LUCKIEST("🍀 Luckiest openers");
+
+        public final String title;
+
+        Type(String title) {
+            this.title = title;
+        }
+    }
+
+    public static final String GLOBAL = "global";
+    public static final String ALL_TIME = "all";
+
+    private static final int K = 10;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 512;
+    private static final String TOTALS = "leaderboard_totals";
+    private static final long CHECKPOINT_SECONDS = 60;
+
+    private static final class Board {
+        final TopK top = new TopK(K);
+        final CountMinSketch sketch;
+        // Richest only; guarded by the board's monitor
+        final Map<String, Double> totals;
+        final Set<String> changed;
+        volatile boolean dirty = false;
+
+        Board(Type type) {
+            sketch = type == Type.LUCKIEST ? new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH) : null;
+            totals = type == Type.RICHEST ? new HashMap<>() : null;
+            changed = type == Type.RICHEST ? new HashSet<>() : null;
+        }
+    }
+
+    private static final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private static final AtomicLong pullSeq = new AtomicLong();
+    private static ScheduledExecutorService scheduler;
+    private static volatile boolean preloaded = false;
+
+    /** Feed one case opening into every board it belongs to. */
+    public static void recordPull(String guildId, String userId, String userName,
+                                  String itemName, double price, String rarity) {
+        String pullKey = userId + ":" + System.currentTimeMillis() + ":" + pullSeq.incrementAndGet();
+        boolean lucky = "Covert".equals(rarity) || "Extraordinary".equals(rarity);
+        String today = today();
+
+        for (String scope : guildId != null ? new String[]{guildId, GLOBAL} : new String[]{GLOBAL}) {
+            for (String period : new String[]{ALL_TIME, today}) {
+                Board valuable = board(Type.VALUABLE, scope, period);
+                if (valuable.top.offer(pullKey, userName + " — " + itemName, price)) valuable.dirty = true;
+
+                if (price > 0) {
+                    Board richest = board(Type.RICHEST, scope, period);
+                    // Keep totals + heap in step so a stale total never overwrites a newer one
+                    synchronized (richest) {
+                        richest.changed.add(userId);
+                        richest.top.offer(userId, userName, richest.totals.merge(userId, price, Double::sum));
+                    }
+                    richest.dirty = true;
+                }
+
+                if (lucky) {
+                    Board luckiest = board(Type.LUCKIEST, scope, period);
+                    // Keep sketch + heap in step so a stale estimate never overwrites a newer one
+                    synchronized (luckiest) {
+                        luckiest.top.offer(userId, userName, luckiest.sketch.add(userId, 1));
+                    }
+                    luckiest.dirty = true;
+                }
+            }
+        }
+    }
+
+    /** Top entries, best first. {@code period} is {@link #ALL_TIME} or "today". */
+    public static List<TopK.Entry> top(Type type, String scope, String period) {
+        String p = "today".equals(period) ? today() : ALL_TIME;
+        return board(type, scope, p).top.snapshot();
+    }
+
+    /** Preload current boards, then checkpoint periodically. Needs {@link MongoUtil#init} first. */
+    public static synchronized void start() {
+        if (scheduler != null) return;
+        MongoUtil.getDB().getCollection(TOTALS).createIndex(Indexes.ascending("board"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(Leaderboards::preload);
+        scheduler.scheduleWithFixedDelay(Leaderboards::checkpoint,
+                CHECKPOINT_SECONDS, CHECKPOINT_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(Leaderboards::checkpoint));
+    }
+
+    static void checkpoint() {
+        if (MongoUtil.getDB() == null) return;
+        MongoCollection<Document> coll = MongoUtil.getDB().getCollection("leaderboards");
+        MongoCollection<Document> totals = MongoUtil.getDB().getCollection(TOTALS);
+        String today = today();
+        int saved = 0;
+
+        for (Map.Entry<String, Board> e : boards.entrySet()) {
+            Board b = e.getValue();
+            if (b.dirty) {
+                b.dirty = false;
+                Map<String, Double> changed = takeChanged(b);
+                try {
+                    saveTotals(totals, e.getKey(), changed);
+                    coll.replaceOne(Filters.eq("_id", e.getKey()), toDocument(e.getKey(), b),
+                            new ReplaceOptions().upsert(true));
+                    saved++;
+                } catch (Exception ex) {
+                    b.dirty = true;
+                    if (b.changed != null) {
+                        synchronized (b) {
+                            b.changed.addAll(changed.keySet());
+                        }
+                    }
+                    Log.warn("Leaderboards", "⚠️ Checkpoint failed", "board", e.getKey(), "error", ex.getMessage());
+                }
+            }
+
+            // Yesterday's daily boards are persisted — drop them from memory
+            String[] parts = e.getKey().split("\\|");
+            if (!b.dirty && !ALL_TIME.equals(parts[2]) && !today.equals(parts[2])) {
+                boards.remove(e.getKey());
+            }
+        }
+
+        if (saved > 0) Log.info("Leaderboards", "💾 Checkpointed boards", "count", saved);
+    }
+
+    /** Richest totals changed since the last checkpoint, and reset the change set. */
+    private static Map<String, Double> takeChanged(Board b) {
+        if (b.changed == null) return Map.of();
+        synchronized (b) {
+            Map<String, Double> out = new HashMap<>(b.changed.size() * 2);
+            for (String user : b.changed) out.put(user, b.totals.get(user));
+            b.changed.clear();
+            return out;
+        }
+    }
+
+    private static void saveTotals(MongoCollection<Document> coll, String boardId, Map<String, Double> changed) {
+        if (changed.isEmpty()) return;
+        List<WriteModel<Document>> ops = new ArrayList<>(changed.size());
+        changed.forEach((user, total) -> ops.add(new ReplaceOneModel<>(
+                Filters.eq("_id", boardId + "|" + user),
+                new Document("_id", boardId + "|" + user).append("board", boardId)
+                        .append("user", user).append("total", total),
+                new ReplaceOptions().upsert(true))));
+        coll.bulkWrite(ops, new BulkWriteOptions().ordered(false));
+    }
+
+    private static Board board(Type type, String scope, String period) {
+        String id = type + "|" + scope + "|" + period;
+        Board b = boards.get(id);
+        if (b != null) return b;
+
+        // After the preload, a board not in memory has nothing persisted: no DB read on the open path
+        Board fresh = preloaded ? new Board(type) : restore(id, type);
+        b = boards.putIfAbsent(id, fresh);
+        return b != null ? b : fresh;
+    }
+
+    /** Load every all-time and today board (and their richest totals) into memory. */
+    private static void preload() {
+        try {
+            List<String> periods = List.of(ALL_TIME, today());
+            Map<String, Map<String, Double>> totals = new HashMap<>();
+            for (Document t : MongoUtil.getDB().getCollection(TOTALS)
+                    .find(Filters.regex("board", "^" + Type.RICHEST + "\\|"))) {
+                String board = t.getString("board");
+                if (!periods.contains(board.substring(board.lastIndexOf('|') + 1))) continue;
+                if (t.get("total") instanceof Number n) {
+                    totals.computeIfAbsent(board, k -> new HashMap<>()).put(t.getString("user"), n.doubleValue());
+                }
+            }
+
+            int loaded = 0;
+            for (Document doc : MongoUtil.getDB().getCollection("leaderboards").find(Filters.in("period", periods))) {
+                String id = doc.getString("_id");
+                Type type = Type.valueOf(doc.getString("type"));
+                Board b = new Board(type);
+                fill(b, doc, totals.getOrDefault(id, Map.of()));
+                // A board touched while we were loading already restored itself
+                if (boards.putIfAbsent(id, b) == null) loaded++;
+            }
+            preloaded = true;
+            Log.info("Leaderboards", "📥 Preloaded boards", "count", loaded);
+        } catch (Exception e) {
+            Log.warn("Leaderboards", "⚠️ Preload failed, restoring boards on first use", "error", e.getMessage());
+        }
+    }
+
+    private static Board restore(String id, Type type) {
+        Board b = new Board(type);
+        if (MongoUtil.getDB() == null) return b;
+        try {
+            Document doc = MongoUtil.getDB().getCollection("leaderboards").find(Filters.eq("_id", id)).first();
+            if (doc == null) return b;
+
+            Map<String, Double> totals = new HashMap<>();
+            if (b.totals != null) {
+                for (Document t : MongoUtil.getDB().getCollection(TOTALS).find(Filters.eq("board", id))) {
+                    if (t.get("total") instanceof Number n) totals.put(t.getString("user"), n.doubleValue());
+                }
+            }
+            fill(b, doc, totals);
+        } catch (Exception e) {
+            Log.warn("Leaderboards", "⚠️ Could not restore board", "board", id, "error", e.getMessage());
+        }
+        return b;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fill(Board b, Document doc, Map<String, Double> totals) {
+        List<TopK.Entry> entries = new ArrayList<>();
+        for (Document d : doc.getList("entries", Document.class, List.of())) {
+            Number score = d.get("score", Number.class);
+            Number at = d.get("at", Number.class);
+            entries.add(new TopK.Entry(d.getString("key"), d.getString("label"),
+                    score != null ? score.doubleValue() : 0.0, at != null ? at.longValue() : 0L));
+        }
+        b.top.load(entries);
+        if (b.sketch != null) b.sketch.loadRows((List<List<Double>>) doc.get("sketch"));
+        if (b.totals != null) {
+            b.totals.putAll(totals);
+            // Boards checkpointed before exact totals: at least keep the ranked users' scores
+            for (TopK.Entry e : entries) b.totals.putIfAbsent(e.key(), e.score());
+        }
+    }
+
+    private static Document toDocument(String id, Board b) {
+        String[] parts = id.split("\\|");
+        List<Document> entries = new ArrayList<>();
+        for (TopK.Entry e : b.top.snapshot()) {
+            entries.add(new Document("key", e.key())
+                    .append("label", e.label())
+                    .append("score", e.score())
+                    .append("at", e.at()));
+        }
+        Document doc = new Document("_id", id)
+                .append("type", parts[0])
+                .append("scope", parts[1])
+                .append("period", parts[2])
+                .append("entries", entries)
+                .append("updated", new java.util.Date());
+        if (b.sketch != null) doc.append("sketch", b.sketch.toRows());
+        return doc;
+    }
+
+    private static String today() {
+        return LocalDate.now(ZoneOffset.UTC).toString();
+    }
+}
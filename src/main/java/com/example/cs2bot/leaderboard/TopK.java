@@ -0,0 +1,60 @@
+package com.example.cs2bot.leaderboard;
+
+import java.util.*;
+
+/**
+ * Bounded top-K by score. Offering an existing key replaces its score;
+ * reading the board is O(K).
+ */
+public class TopK {
+
+    public record Entry(String key, String label, double score, long at) {}
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::score)
+            .thenComparingLong(e -> -e.at())
+            .thenComparing(Entry::key);
+
+    private final int k;
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(ORDER);
+
+    public TopK(int k) {
+        this.k = k;
+    }
+
+    /** @return true if the board changed */
+    public synchronized boolean offer(String key, String label, double score) {
+        Entry existing = byKey.get(key);
+        if (existing != null) {
+            if (existing.score() == score) return false;
+            ranked.remove(existing);
+        } else if (ranked.size() >= k && score <= ranked.first().score()) {
+            return false;
+        }
+
+        Entry e = new Entry(key, label, score, System.currentTimeMillis());
+        ranked.add(e);
+        byKey.put(key, e);
+
+        if (ranked.size() > k) {
+            Entry evicted = ranked.pollFirst();
+            byKey.remove(evicted.key());
+        }
+        return true;
+    }
+
+    /** Highest score first. */
+    public synchronized List<Entry> snapshot() {
+        return new ArrayList<>(ranked.descendingSet());
+    }
+
+    public synchronized void load(List<Entry> entries) {
+        for (Entry e : entries) {
+            Entry old = byKey.put(e.key(), e);
+            if (old != null) ranked.remove(old);
+            ranked.add(e);
+        }
+        while (ranked.size() > k) byKey.remove(ranked.pollFirst().key());
+    }
+}
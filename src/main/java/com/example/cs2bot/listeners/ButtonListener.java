@@ -1,126 +1,152 @@
 package com.example.cs2bot.listeners;
 
-import com.example.cs2bot.db.MongoUtil;
-import com.mongodb.client.MongoCollection;
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.KeyEconomy;
+import com.example.cs2bot.db.Marketplace;
+import com.example.cs2bot.leaderboard.Leaderboards;
+import com.example.cs2bot.models.SkinView;
+import com.example.cs2bot.repo.Repositories;
+import com.example.cs2bot.repo.UserRepository;
+import com.example.cs2bot.utils.CsFloatRepricer;
+import com.example.cs2bot.utils.FastFormat;
+import com.example.cs2bot.utils.InteractionDeduper;
+import com.example.cs2bot.utils.InteractionRateLimiter;
+import com.example.cs2bot.utils.StartupMetrics;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 
-import java.awt.*;
-import java.util.Date;
-import java.util.Random;
 
 public class ButtonListener extends ListenerAdapter {
 
-    private final Random random = new Random();
+    private final InteractionRateLimiter rateLimiter;
+    private final InteractionDeduper deduper;
+    private final int keyGrantAmount;
+    private final long keyGrantCooldownMs;
+
+    public ButtonListener(BotConfig config) {
+        this.rateLimiter = new InteractionRateLimiter(config);
+        this.deduper = new InteractionDeduper(config);
+        this.keyGrantAmount = config.getInt("KEY_GRANT_AMOUNT", 1);
+        this.keyGrantCooldownMs = config.getLong("KEY_GRANT_COOLDOWN_MS", 10 * 60_000L);
+    }
 
     @Override
     public void onButtonInteraction(ButtonInteractionEvent event) {
-        String id = event.getComponentId();
+        StartupMetrics.interaction();
+        String componentId = event.getComponentId();
+        // Buttons like "sell:<itemId>" carry an argument after the action
+        int colon = componentId.indexOf(':');
+        String id = colon >= 0 ? componentId.substring(0, colon) : componentId;
+        String arg = colon >= 0 ? componentId.substring(colon + 1) : null;
+
+        // 🔁 Drop redeliveries and double clicks before they cost a token or a query
+        InteractionDeduper.Verdict verdict = deduper.check(event.getIdLong(), event.getUser().getIdLong(),
+                event.getMessageIdLong(), componentId);
+        if (verdict == InteractionDeduper.Verdict.REDELIVERED) return; // already answered
+        if (verdict == InteractionDeduper.Verdict.DOUBLE_CLICK) {
+            event.reply("⏳ Already on it!").setEphemeral(true).queue();
+            return;
+        }
 
-        switch (id) {
-            case "get_key" -> event.reply("🗝️ You received a key! Use it to open a case.")
+        // 🐢 Reject bursts before any DB work
+        long waitMs = rateLimiter.tryAcquire(id, event.getUser().getId(),
+                event.getGuild() != null ? event.getGuild().getId() : null);
+        if (waitMs > 0) {
+            event.reply("🐢 Slow down! Try again in " + Math.max(1, (waitMs + 999) / 1000) + "s.")
                     .setEphemeral(true).queue();
+            return;
+        }
 
-            case "open_case", "open_prisma2", "open_revolution", "open_dreams" -> {
-                String caseName = switch (id) {
-                    case "open_prisma2" -> "🎨 Prisma 2 Case";
-                    case "open_revolution" -> "⚡ Revolution Case";
-                    case "open_dreams" -> "💤 Dreams & Nightmares Case";
-                    default -> "Mystery Case";
-                };
-
-                MongoCollection<Document> skins = MongoUtil.getDB().getCollection("skins");
-                MongoCollection<Document> prices = MongoUtil.getDB().getCollection("prices");
-                MongoCollection<Document> inventory = MongoUtil.getDB().getCollection("inventory");
-
-                long count = skins.countDocuments();
-                if (count == 0) {
-                    event.reply("⚠️ No skins available in the database!")
+        switch (id) {
+            case "get_key" -> {
+                String userId = event.getUser().getId();
+                int keys = KeyEconomy.grant(userId, keyGrantAmount, keyGrantCooldownMs);
+                if (keys == KeyEconomy.ON_COOLDOWN) {
+                    long left = KeyEconomy.cooldownLeft(userId, keyGrantCooldownMs);
+                    event.reply("⏳ Next key in " + Math.max(1, (left + 59_999) / 60_000) + " min.")
+                            .setEphemeral(true).queue();
+                } else {
+                    event.reply("🗝️ You received a key! You now have " + keys + ". Use it to open a case.")
                             .setEphemeral(true).queue();
-                    return;
                 }
+            }
 
-                int randomIndex = random.nextInt((int) count);
-                Document skin = skins.find().skip(randomIndex).first();
+            case "open_case", "open_prisma2", "open_revolution", "open_dreams" -> {
+                Document skin = Repositories.skins().random();
                 if (skin == null) {
-                    event.reply("⚠️ Error fetching skin.")
+                    event.reply("⚠️ No skins available in the database!")
                             .setEphemeral(true).queue();
                     return;
                 }
 
-                // ✅ Safe data extraction
-                String name = safeString(skin, "name");
-                String wear = safeString(skin, "wear");
-                String rarity = safeString(skin, "rarity");
-                String image = safeString(skin, "image");
-                double wearFloat = skin.containsKey("float") ? safeDouble(skin, "float") : 0.0;
+                // 🧊 Names, keys, color and static text are precomputed per skin
+                SkinView view = SkinView.of(skin);
 
                 // ✅ Try to get live price from PriceUpdater
-                double price = safeDouble(skin, "price"); // fallback
-                String normalized = normalizeName(name);
-
-                Document priceDoc = prices.find(new Document("_id", normalized)).first();
-                if (priceDoc == null) {
-                    // Try again without the ★ prefix (fallback)
-                    String relaxed = normalized.replace("★", "").trim();
-                    priceDoc = prices.find(new Document("_id", relaxed)).first();
+                double price = view.fallbackPrice();
+                Document priceDoc = findPrice(view.priceKey());
+                if (priceDoc == null) priceDoc = findPrice(view.relaxedPriceKey()); // without the ★ prefix
+                if (priceDoc != null && priceDoc.get("price") instanceof Number n) {
+                    price = n.doubleValue();
                 }
 
-                if (priceDoc != null && priceDoc.containsKey("price")) {
-                    price = safeDouble(priceDoc, "price");
+                // 🗝️ Spend a key and save to user’s inventory (compact: display fields come from the catalog)
+                String guildId = event.getGuild() != null ? event.getGuild().getId() : null;
+                Document item = InventoryRecords.compact(event.getIdLong(), event.getUser().getId(), guildId,
+                        skin.get("_id"), view.wearFloat(), false, price); // no StatTrak drops yet
+
+                UserRepository.OpenResult result = KeyEconomy.openWithKey(event.getUser().getId(), item);
+                if (result == UserRepository.OpenResult.NO_KEYS) {
+                    event.reply("🔒 You have no keys! Press **Get Key** to grab one.")
+                            .setEphemeral(true).queue();
+                    return;
                 }
+                if (result == UserRepository.OpenResult.DUPLICATE) return; // an earlier delivery stored it and replied
+
+                // 🏆 Feed leaderboards (in-memory, checkpointed separately)
+                Leaderboards.recordPull(guildId, event.getUser().getId(), event.getUser().getName(), view.name(), price, view.rarity());
+                CsFloatRepricer.recordOpen(view.name()); // catalog name, never the StatTrak variant
+
+                // 🎁 Build embed message: only price and float are formatted per pull
+                String header = view.description(false);
+                StringBuilder desc = new StringBuilder(header.length() + 64).append(header);
+                FastFormat.fixed(desc, price, 2).append("\n🧮 Float: ");
+                FastFormat.fixed(desc, view.wearFloat(), 4).append("\n\n📦 Added to your inventory ✅");
 
-                // 🧹 Clean up
-                if (name != null) name = name.replace("?", "★").trim();
-                if (rarity == null || rarity.isBlank()) rarity = "Unknown";
-
-                Color embedColor = switch (rarity) {
-                    case "Consumer Grade" -> new Color(211, 211, 211);
-                    case "Industrial Grade" -> new Color(94, 152, 217);
-                    case "Mil-Spec" -> new Color(75, 105, 255);
-                    case "Restricted" -> new Color(136, 71, 255);
-                    case "Classified" -> new Color(211, 44, 230);
-                    case "Covert" -> new Color(235, 75, 75);
-                    case "Extraordinary" -> new Color(255, 215, 0);
-                    default -> Color.WHITE;
-                };
-
-                // 🧾 Save to user’s inventory
-                Document item = new Document("user_id", event.getUser().getId())
-                        .append("case", caseName)
-                        .append("name", name)
-                        .append("wear", wear)
-                        .append("rarity", rarity)
-                        .append("price", price)
-                        .append("float", wearFloat)
-                        .append("image", image)
-                        .append("opened_at", new Date());
-
-                inventory.insertOne(item);
-
-                // 🎁 Build embed message
                 EmbedBuilder embed = new EmbedBuilder()
-                        .setTitle("🎁 You opened a " + caseName + "!")
-                        .setDescription("You unboxed a **" + rarity + "** skin:\n\n" +
-                                "🪙 **" + name + "** (" + wear + ")\n" +
-                                "💶 Price: €" + String.format("%.2f", price) + "\n" +
-                                "🧮 Float: " + String.format("%.4f", wearFloat) + "\n\n" +
-                                "📦 Added to your inventory ✅")
-                        .setColor(embedColor);
-
-                if (image != null && !image.isBlank())
-                    embed.setThumbnail(image);
-
-                event.replyEmbeds(embed.build()).queue();
+                        .setTitle(caseTitle(id))
+                        .setDescription(desc)
+                        .setColor(view.color());
+
+                if (view.image() != null)
+                    embed.setThumbnail(view.image());
+
+                StringBuilder sellLabel = new StringBuilder("💰 Sell for €");
+                event.replyEmbeds(embed.build())
+                        .addActionRow(Button.secondary("sell:" + item.getObjectId("_id").toHexString(),
+                                FastFormat.fixed(sellLabel, price, 2).toString()))
+                        .queue();
+            }
+
+            case "sell" -> {
+                ObjectId itemId = arg != null && ObjectId.isValid(arg) ? new ObjectId(arg) : null;
+                Marketplace.Sale sale = itemId != null ? Marketplace.sellOne(event.getUser().getId(), itemId) : null;
+                if (sale == null) {
+                    event.reply("⚠️ That item is no longer in your inventory.").setEphemeral(true).queue();
+                    return;
+                }
+                event.reply("💰 Sold for €" + String.format("%.2f", sale.cents() / 100.0) + ". Balance: €"
+                                + String.format("%.2f", Marketplace.balanceCents(event.getUser().getId()) / 100.0))
+                        .setEphemeral(true).queue();
             }
 
             case "inventory" -> {
-                MongoCollection<Document> inventory = MongoUtil.getDB().getCollection("inventory");
-                var items = inventory.find(new Document("user_id", event.getUser().getId()))
-                        .limit(10)
-                        .into(new java.util.ArrayList<>());
+                var items = InventoryRecords.resolveAll(Repositories.inventory().recent(event.getUser().getId(), 10));
 
                 if (items.isEmpty()) {
                     event.reply("📦 Your inventory is empty! Open some cases first.")
@@ -130,10 +156,10 @@ public class ButtonListener extends ListenerAdapter {
 
                 StringBuilder sb = new StringBuilder("🎒 **Your Inventory:**\n\n");
                 for (Document item : items) {
-                    sb.append("• ").append(item.getString("name"))
+                    sb.append("• ").append(item.getBoolean("stattrak", false)
+                                    ? InventoryRecords.statTrakName(item.getString("name")) : item.getString("name"))
                             .append(" — ").append(item.getString("rarity"))
-                            .append(" (€").append(String.format("%.2f",
-                                    item.getDouble("price") != null ? item.getDouble("price") : 0.0))
+                            .append(" (€").append(String.format("%.2f", InventoryRecords.currentValue(item)))
                             .append(")\n");
                 }
 
@@ -148,31 +174,21 @@ public class ButtonListener extends ListenerAdapter {
         }
     }
 
-    private String safeString(Document doc, String key) {
-        if (doc == null || !doc.containsKey(key)) return "Unknown";
-        String value = doc.getString(key);
-        return (value != null && !value.isBlank()) ? value : "Unknown";
-    }
-
-    private double safeDouble(Document doc, String key) {
-        try {
-            Object val = doc.get(key);
-            if (val instanceof Number) {
-                return ((Number) val).doubleValue();
-            }
-        } catch (Exception ignored) {}
-        return 0.0;
+    private static final String TITLE_PRISMA2 = "🎁 You opened a 🎨 Prisma 2 Case!";
+    private static final String TITLE_REVOLUTION = "🎁 You opened a ⚡ Revolution Case!";
+    private static final String TITLE_DREAMS = "🎁 You opened a 💤 Dreams & Nightmares Case!";
+    private static final String TITLE_MYSTERY = "🎁 You opened a Mystery Case!";
+
+    private static String caseTitle(String buttonId) {
+        return switch (buttonId) {
+            case "open_prisma2" -> TITLE_PRISMA2;
+            case "open_revolution" -> TITLE_REVOLUTION;
+            case "open_dreams" -> TITLE_DREAMS;
+            default -> TITLE_MYSTERY;
+        };
     }
 
-    private String normalizeName(String name) {
-        if (name == null) return "";
-        String n = name.trim();
-        if (n.startsWith("? ")) n = "★ " + n.substring(2);
-        if (n.startsWith("?")) n = "★ " + n.substring(1).trim();
-        if ((n.contains("Gloves") || n.contains("Knife") || n.contains("Hand Wraps"))
-                && !n.startsWith("★ ")) {
-            n = "★ " + n;
-        }
-        return n;
+    private Document findPrice(String name) {
+        return Repositories.prices().byName(name);
     }
 }
@@ -1,38 +1,61 @@
 package com.example.cs2bot.listeners;
 
-import com.example.cs2bot.db.MongoUtil;
-import com.example.cs2bot.models.User;
+import com.example.cs2bot.alerts.PriceAlerts;
+import com.example.cs2bot.db.KeyEconomy;
+import com.example.cs2bot.db.Marketplace;
+import com.example.cs2bot.leaderboard.Leaderboards;
+import com.example.cs2bot.leaderboard.TopK;
+import com.example.cs2bot.prices.PriceSource;
+import com.example.cs2bot.repo.Repositories;
+import com.example.cs2bot.stats.GuildStats;
+import com.example.cs2bot.utils.InventoryExporter;
+import com.example.cs2bot.utils.Log;
 import com.example.cs2bot.utils.PriceUpdater;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.Filters;
+import com.example.cs2bot.utils.StartupMetrics;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.utils.FileUpload;
 import org.bson.Document;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+
+import java.util.List;
+
 public class SlashCommandListener extends ListenerAdapter {
 
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
+        StartupMetrics.interaction();
         switch (event.getName()) {
             case "case" -> handleCaseCommand(event);
             case "inventory" -> handleInventoryCommand(event);
             case "trade" -> handleTradeCommand(event);
             case "refreshprices" -> handleRefreshPrices(event);
+            case "leaderboard" -> handleLeaderboard(event);
+            case "sell" -> handleSell(event);
+            case "export" -> handleExport(event);
+            case "alert" -> handleAlert(event);
+            case "stats" -> handleStats(event);
         }
     }
 
     private void handleCaseCommand(SlashCommandInteractionEvent event) {
         var embed = new net.dv8tion.jda.api.EmbedBuilder()
                 .setTitle("🎁 CS2 Case Menu")
-                .setDescription("Choose a case to open below! Each case contains random skins.")
+                .setDescription("Choose a case to open below! Each case contains random skins and costs one key.")
                 .setColor(0x00BFFF)
                 .build();
 
         var buttons = net.dv8tion.jda.api.interactions.components.ActionRow.of(
                 net.dv8tion.jda.api.interactions.components.buttons.Button.primary("open_prisma2", "🎨 Prisma 2 Case"),
                 net.dv8tion.jda.api.interactions.components.buttons.Button.primary("open_revolution", "⚡ Revolution Case"),
-                net.dv8tion.jda.api.interactions.components.buttons.Button.primary("open_dreams", "💤 Dreams & Nightmares")
+                net.dv8tion.jda.api.interactions.components.buttons.Button.primary("open_dreams", "💤 Dreams & Nightmares"),
+                net.dv8tion.jda.api.interactions.components.buttons.Button.success("get_key", "🗝️ Get Key")
         );
 
         event.replyEmbeds(embed)
@@ -41,14 +64,14 @@ public class SlashCommandListener extends ListenerAdapter {
     }
 
     private void handleInventoryCommand(SlashCommandInteractionEvent event) {
-        MongoCollection<Document> users = MongoUtil.getDB().getCollection("users");
-        Document userDoc = users.find(Filters.eq("_id", event.getUser().getId())).first();
-        if (userDoc == null) {
+        String userId = event.getUser().getId();
+        long items = Repositories.inventory().count(userId);
+        int keys = KeyEconomy.balance(userId);
+        if (items == 0 && keys == 0) {
             event.reply("You have no items in your inventory.").setEphemeral(true).queue();
             return;
         }
-        User user = new User(userDoc);
-        event.reply("You own " + user.inventory.size() + " item(s).").setEphemeral(true).queue();
+        event.reply("You own " + items + " item(s) and " + keys + " key(s) 🗝️.").setEphemeral(true).queue();
     }
 
     private void handleTradeCommand(SlashCommandInteractionEvent event) {
@@ -68,4 +91,183 @@ public class SlashCommandListener extends ListenerAdapter {
 
         event.reply("⏳ Price refresh started. Check console logs for progress.").setEphemeral(true).queue();
     }
-}
\ No newline at end of file
+
+    private void handleLeaderboard(SlashCommandInteractionEvent event) {
+        String typeOpt = optionOr(event.getOption("type"), "valuable");
+        String scopeOpt = optionOr(event.getOption("scope"), "server");
+        String period = optionOr(event.getOption("period"), Leaderboards.ALL_TIME);
+
+        Leaderboards.Type type = switch (typeOpt) {
+            case "richest" -> Leaderboards.Type.RICHEST;
+            case "luckiest" -> Leaderboards.Type.LUCKIEST;
+            default -> Leaderboards.Type.VALUABLE;
+        };
+        String scope = "global".equals(scopeOpt) || event.getGuild() == null
+                ? Leaderboards.GLOBAL
+                : event.getGuild().getId();
+
+        List<TopK.Entry> entries = Leaderboards.top(type, scope, period);
+        if (entries.isEmpty()) {
+            event.reply("🏆 No entries yet — open some cases!").setEphemeral(true).queue();
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int rank = 1;
+        for (TopK.Entry e : entries) {
+            sb.append("**").append(rank++).append(".** ").append(e.label()).append(" — ");
+            if (type == Leaderboards.Type.LUCKIEST) {
+                sb.append((long) e.score()).append(" rare pulls");
+            } else {
+                sb.append("€").append(String.format("%.2f", e.score()));
+            }
+            sb.append('\n');
+        }
+
+        var embed = new net.dv8tion.jda.api.EmbedBuilder()
+                .setTitle(type.title + (Leaderboards.GLOBAL.equals(scope) ? " (global)" : ""))
+                .setDescription(sb.toString())
+                .setFooter("today".equals(period) ? "Today (UTC)" : "All time")
+                .setColor(0xFFD700)
+                .build();
+        event.replyEmbeds(embed).queue();
+    }
+
+    private void handleSell(SlashCommandInteractionEvent event) {
+        // Selling is a few DB round trips (a transaction on replica sets): don't race the 3s reply window
+        event.deferReply(true).queue();
+        var hook = event.getHook();
+        String userId = event.getUser().getId();
+        OptionMapping below = event.getOption("below");
+        Marketplace.Sale sale;
+
+        try {
+            if (below != null) {
+                sale = Marketplace.sellBelow(userId, Math.round(below.getAsDouble() * 100));
+            } else {
+                // No threshold: sell the most recent pull
+                List<Document> latest = Repositories.inventory().recent(userId, 1);
+                sale = latest.isEmpty() ? null : Marketplace.sellOne(userId, latest.get(0).getObjectId("_id"));
+            }
+        } catch (IllegalStateException e) {
+            // sellBelow aborted because items changed mid-transaction; nothing was sold
+            hook.editOriginal("⚠️ Your inventory changed during the sale, try again.").queue();
+            return;
+        }
+
+        if (sale == null || sale.items() == 0) {
+            hook.editOriginal("📦 Nothing to sell.").queue();
+            return;
+        }
+        hook.editOriginal("💰 Sold " + sale.items() + " item(s) for €" + String.format("%.2f", sale.cents() / 100.0)
+                + ". Balance: €" + String.format("%.2f", Marketplace.balanceCents(userId) / 100.0)).queue();
+    }
+
+    private void handleAlert(SlashCommandInteractionEvent event) {
+        String item = PriceSource.normalizeName(optionOr(event.getOption("item"), ""));
+        PriceAlerts.Direction direction = "below".equals(optionOr(event.getOption("direction"), "above"))
+                ? PriceAlerts.Direction.BELOW
+                : PriceAlerts.Direction.ABOVE;
+        OptionMapping priceOpt = event.getOption("price");
+
+        Double current = PriceUpdater.priceOf(item);
+        if (current == null || priceOpt == null) {
+            event.reply("⚠️ Unknown item `" + item + "`. Use the full market name.").setEphemeral(true).queue();
+            return;
+        }
+
+        double threshold = priceOpt.getAsDouble();
+        if (direction == PriceAlerts.Direction.ABOVE ? current >= threshold : current <= threshold) {
+            event.reply(String.format("ℹ️ **%s** is already at €%.2f.", item, current)).setEphemeral(true).queue();
+            return;
+        }
+        PriceAlerts.Alert alert = PriceAlerts.create(event.getUser().getId(), item, direction, threshold);
+        if (alert == null) {
+            event.reply("⚠️ You already have " + PriceAlerts.MAX_PER_USER + " alerts.").setEphemeral(true).queue();
+            return;
+        }
+        event.reply(String.format("🔔 I'll DM you when **%s** goes %s €%.2f (now €%.2f).",
+                item, direction == PriceAlerts.Direction.ABOVE ? "above" : "below", threshold, current))
+                .setEphemeral(true).queue();
+    }
+
+    private void handleStats(SlashCommandInteractionEvent event) {
+        if (event.getGuild() == null) {
+            event.reply("⚠️ /stats only works in a server.").setEphemeral(true).queue();
+            return;
+        }
+        OptionMapping daysOpt = event.getOption("days");
+        int days = daysOpt != null ? (int) Math.max(1, Math.min(daysOpt.getAsLong(), GuildStats.MAX_DAYS)) : 7;
+
+        GuildStats.Summary stats = GuildStats.summary(event.getGuild().getId(), days);
+        if (stats.opened() == 0) {
+            event.reply("📊 No cases opened here in the last " + days + " day(s).").setEphemeral(true).queue();
+            return;
+        }
+
+        StringBuilder rarities = new StringBuilder();
+        stats.byRarity().entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                .forEach(e -> rarities.append(e.getKey()).append(": **").append(e.getValue()).append("** (")
+                        .append(String.format("%.1f", 100.0 * e.getValue() / stats.opened())).append("%)\n"));
+        StringBuilder perDay = new StringBuilder();
+        stats.byDay().forEach((day, n) -> perDay.append(day).append(": ").append(n).append('\n'));
+
+        var embed = new net.dv8tion.jda.api.EmbedBuilder()
+                .setTitle("📊 Server stats — last " + days + " day(s)")
+                .addField("Cases opened", String.valueOf(stats.opened()), true)
+                .addField("Total value", "€" + String.format("%.2f", stats.value()), true)
+                .addField("Rarities", rarities.toString(), false)
+                .addField("Per day (UTC)", perDay.toString(), false)
+                .setFooter("Updated every few minutes")
+                .setColor(0x5865F2)
+                .build();
+        event.replyEmbeds(embed).queue();
+    }
+
+    private static final long MAX_ATTACHMENT_BYTES = 25L * 1024 * 1024;
+
+    private void handleExport(SlashCommandInteractionEvent event) {
+        InventoryExporter.Format format = "json".equals(optionOr(event.getOption("format"), "csv"))
+                ? InventoryExporter.Format.JSON
+                : InventoryExporter.Format.CSV;
+        String fileName = "inventory." + (format == InventoryExporter.Format.JSON ? "json.gz" : "csv.gz");
+
+        event.deferReply(true).queue();
+        var hook = event.getHook();
+        try {
+            InventoryExporter.submit(event.getUser().getId(), format, file -> {
+                if (file == null) {
+                    hook.editOriginal("❌ Export failed, please try again later.").queue();
+                    return;
+                }
+                try {
+                    if (Files.size(file) > MAX_ATTACHMENT_BYTES) {
+                        hook.editOriginal("⚠️ Your inventory is too large to attach.").queue(ok -> delete(file), err -> delete(file));
+                        return;
+                    }
+                    hook.editOriginal("📤 Here is your inventory.")
+                            .setFiles(FileUpload.fromData(file.toFile(), fileName))
+                            .queue(ok -> delete(file), err -> delete(file));
+                } catch (IOException e) {
+                    delete(file);
+                    hook.editOriginal("❌ Export failed, please try again later.").queue();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            hook.editOriginal("⏳ Too many exports running, try again in a minute.").queue();
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Log.warn("Export", "⚠️ Could not delete export file", "file", file);
+        }
+    }
+
+    private String optionOr(OptionMapping option, String fallback) {
+        return option != null ? option.getAsString() : fallback;
+    }
+}
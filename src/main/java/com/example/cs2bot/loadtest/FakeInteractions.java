@@ -0,0 +1,88 @@
+package com.example.cs2bot.loadtest;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
+import net.dv8tion.jda.api.interactions.components.buttons.ButtonInteraction;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic JDA interaction events for driving the listeners without Discord.
+ *
+ * Everything behind the event is a dynamic proxy: getters return the values
+ * given here, builder-style calls ({@code reply(..).setEphemeral(..)}) return
+ * a stub of the declared type, and {@code queue()} does nothing. Handlers
+ * therefore run their full logic, minus the network round trip to Discord.
+ */
+public class FakeInteractions {
+
+    private static final JDA JDA_STUB = stub(JDA.class, Map.of());
+    // Unique snowflake-like IDs, so the deduper sees every event as a fresh click
+    private static final AtomicLong NEXT_ID = new AtomicLong(1_000_000_000_000L);
+
+    public static ButtonInteractionEvent button(String componentId, String userId, String guildId) {
+        long id = NEXT_ID.getAndIncrement();
+        ButtonInteraction interaction = stub(ButtonInteraction.class, Map.of(
+                "getIdLong", id,
+                "getMessageIdLong", id,
+                "getComponentId", componentId,
+                "getUser", user(userId),
+                "getGuild", guild(guildId)));
+        return new ButtonInteractionEvent(JDA_STUB, 0, interaction);
+    }
+
+    public static SlashCommandInteractionEvent slash(String name, String userId, String guildId) {
+        SlashCommandInteraction interaction = stub(SlashCommandInteraction.class, Map.of(
+                "getName", name,
+                "getUser", user(userId),
+                "getGuild", guild(guildId)));
+        return new SlashCommandInteractionEvent(JDA_STUB, 0, interaction);
+    }
+
+    private static User user(String id) {
+        return stub(User.class, Map.of("getId", id, "getName", "user-" + id, "getIdLong", Long.parseLong(id)));
+    }
+
+    private static Guild guild(String id) {
+        return stub(Guild.class, Map.of("getId", id, "getIdLong", Long.parseLong(id)));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Object> values) {
+        return (T) Proxy.newProxyInstance(FakeInteractions.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (values.containsKey(name)) return values.get(name);
+                    if (name.equals("equals") && args != null && args.length == 1) return proxy == args[0];
+                    if (name.equals("hashCode")) return System.identityHashCode(proxy);
+                    if (name.equals("toString")) return type.getSimpleName() + "Stub";
+
+                    Class<?> r = method.getReturnType();
+                    if (r == void.class) return null;
+                    if (r == boolean.class) return false;
+                    if (r == long.class) return 0L;
+                    if (r == int.class) return 0;
+                    if (r == double.class) return 0.0;
+                    if (r == float.class) return 0f;
+                    if (r == short.class) return (short) 0;
+                    if (r == byte.class) return (byte) 0;
+                    if (r == char.class) return '\0';
+                    if (r == String.class) return "";
+                    if (r.isInstance(proxy)) return proxy; // fluent builders
+                    if (r == List.class || r == Collection.class) return List.of();
+                    if (r == Set.class) return Set.of();
+                    if (r == Map.class) return Map.of();
+                    if (r.isInterface()) return stub(r, Map.of());
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.cs2bot.loadtest;
+
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.leaderboard.Leaderboards;
+import com.example.cs2bot.listeners.ButtonListener;
+import com.example.cs2bot.listeners.SlashCommandListener;
+import com.example.cs2bot.repo.InMemoryRepositories;
+import com.example.cs2bot.repo.Repositories;
+import com.example.cs2bot.utils.Log;
+import com.example.cs2bot.utils.PriceUpdater;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays synthetic button clicks and slash commands against the real
+ * listeners and reports throughput and latency percentiles.
+ *
+ * Usage: {@code InteractionLoadTest [interactions] [threads] [memory|mongo]}
+ * (defaults 50000, 32, memory).
+ *
+ * {@code memory} runs on {@link InMemoryRepositories} seeded with a synthetic
+ * catalog, so the numbers are the bot's own overhead. {@code mongo} uses the
+ * real repositories against {@code LOADTEST_DB} (default {@code cs2_loadtest};
+ * seed it with {@code SeedSkins seed/skins.json cs2_loadtest}), started the way
+ * {@code Main} starts it (caches live, indexes built) — the difference
+ * between the two is the database's share. Rate limits are disabled unless
+ * {@code LOADTEST_RATE_LIMITS=true}. Latency is handler time; Discord's own
+ * round trip is not included.
+ */
+public class InteractionLoadTest {
+
+    enum Kind { OPEN_CASE, GET_KEY, INVENTORY_BUTTON, INVENTORY_COMMAND, LEADERBOARD }
+
+    private static final String[] CASES = {"open_prisma2", "open_revolution", "open_dreams"};
+    private static final String[] RARITIES = {"Mil-Spec", "Restricted", "Classified", "Covert", "Extraordinary"};
+    private static final int USERS = 2000;
+    private static final int GUILDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        String mode = args.length > 2 ? args[2] : "memory";
+
+        BotConfig base = BotConfig.load();
+        Map<String, String> overrides = new java.util.HashMap<>();
+        overrides.put("LOG_LEVEL", "WARN");
+        if (!"true".equalsIgnoreCase(base.get("LOADTEST_RATE_LIMITS"))) {
+            for (String c : CASES) {
+                overrides.put("RATE_LIMIT_USER_" + c.toUpperCase(), "0/0");
+                overrides.put("RATE_LIMIT_GUILD_" + c.toUpperCase(), "0/0");
+            }
+        }
+        overrides.put("MONGO_DB", base.getOrDefault("LOADTEST_DB", "cs2_loadtest"));
+        BotConfig config = BotConfig.load(overrides);
+        Log.setLevel(config.logLevel);
+        Log.start();
+
+        if ("mongo".equals(mode)) {
+            startMongo(config);
+        } else {
+            installInMemory();
+        }
+        for (int u = 0; u < USERS; u++) Repositories.users().grantKeys(userId(u), 1_000_000, 0);
+
+        ButtonListener buttons = new ButtonListener(config);
+        SlashCommandListener slash = new SlashCommandListener();
+
+        // Warm up the JIT and caches; these samples are thrown away
+        run(buttons, slash, Math.max(1000, total / 10), threads);
+        Result r = run(buttons, slash, total, threads);
+
+        System.out.printf("%n📊 %s: %,d interactions on %d threads in %.2fs → %,.0f ops/s, %d errors%n",
+                mode, total, threads, r.wallNanos / 1e9, total / (r.wallNanos / 1e9), r.errors);
+        System.out.printf("%-18s %8s %10s %10s %10s %10s%n", "kind", "count", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Kind k : Kind.values()) {
+            long[] lat = r.byKind.get(k);
+            if (lat.length > 0) print(k.name().toLowerCase(), lat);
+        }
+        print("all", r.all);
+        System.exit(0);
+    }
+
+    private record Result(long wallNanos, long errors, long[] all, Map<Kind, long[]> byKind) {}
+
+    private static Result run(ButtonListener buttons, SlashCommandListener slash, int total, int threads)
+            throws InterruptedException {
+        long[] latencies = new long[total];
+        Kind[] kinds = new Kind[total];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < total) {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        Kind kind = pick(rnd.nextInt(100));
+                        String user = userId(rnd.nextInt(USERS));
+                        String guild = String.valueOf(1_000 + rnd.nextInt(GUILDS));
+
+                        long t0 = System.nanoTime();
+                        try {
+                            switch (kind) {
+                                case OPEN_CASE -> buttons.onButtonInteraction(
+                                        FakeInteractions.button(CASES[rnd.nextInt(CASES.length)], user, guild));
+                                case GET_KEY -> buttons.onButtonInteraction(FakeInteractions.button("get_key", user, guild));
+                                case INVENTORY_BUTTON -> buttons.onButtonInteraction(
+                                        FakeInteractions.button("inventory", user, guild));
+                                case INVENTORY_COMMAND -> slash.onSlashCommandInteraction(
+                                        FakeInteractions.slash("inventory", user, guild));
+                                case LEADERBOARD -> slash.onSlashCommandInteraction(
+                                        FakeInteractions.slash("leaderboard", user, guild));
+                            }
+                        } catch (RuntimeException e) {
+                            if (errors.getAndIncrement() == 0) Log.error("LoadTest", "❌ First failure", e);
+                        }
+                        latencies[i] = System.nanoTime() - t0;
+                        kinds[i] = kind;
+                    }
+                } catch (InterruptedException ignored) {
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        long wall = System.nanoTime() - t0;
+
+        Map<Kind, List<Long>> grouped = new EnumMap<>(Kind.class);
+        for (Kind k : Kind.values()) grouped.put(k, new ArrayList<>());
+        for (int i = 0; i < total; i++) grouped.get(kinds[i]).add(latencies[i]);
+
+        Map<Kind, long[]> byKind = new EnumMap<>(Kind.class);
+        grouped.forEach((k, v) -> byKind.put(k, v.stream().mapToLong(Long::longValue).sorted().toArray()));
+        Arrays.sort(latencies);
+        return new Result(wall, errors.get(), latencies, byKind);
+    }
+
+    /** Traffic mix: mostly case opens, like a busy event. */
+    private static Kind pick(int roll) {
+        if (roll < 70) return Kind.OPEN_CASE;
+        if (roll < 80) return Kind.GET_KEY;
+        if (roll < 90) return Kind.INVENTORY_BUTTON;
+        if (roll < 95) return Kind.INVENTORY_COMMAND;
+        return Kind.LEADERBOARD;
+    }
+
+    /**
+     * The data-side startup {@code Main} does (client, price table, catalog
+     * caches, indexes, leaderboard checkpoints), so mongo mode measures the
+     * production path and not the uncached fallbacks.
+     */
+    private static void startMongo(BotConfig config) throws InterruptedException {
+        MongoUtil.init(config);
+        PriceUpdater.init(config);
+        PriceUpdater.loadSnapshot();
+        LocalCaches.start();
+        InventoryRecords.ensureIndexes();
+        Leaderboards.start();
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!(LocalCaches.SKINS.isLive() && LocalCaches.PRICES.isLive()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        if (!LocalCaches.SKINS.isLive()) {
+            Log.warn("LoadTest", "⚠️ Catalog caches not live (no replica set?) — measuring the uncached fallback");
+        }
+    }
+
+    private static void installInMemory() {
+        InMemoryRepositories.Skins skins = new InMemoryRepositories.Skins();
+        InMemoryRepositories.Prices prices = new InMemoryRepositories.Prices();
+        List<Document> catalog = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = "Weapon " + (i % 200) + " | Finish " + i;
+            catalog.add(new Document("_id", "skin-" + i)
+                    .append("name", name)
+                    .append("wear", "Field-Tested")
+                    .append("rarity", RARITIES[i % RARITIES.length])
+                    .append("image", "https://example.invalid/" + i + ".png")
+                    .append("price", 1.0 + i % 100));
+            prices.put(name, 0.5 + (i % 400) * 0.75);
+        }
+        skins.putAll(catalog);
+        InMemoryRepositories.Inventory inventory = new InMemoryRepositories.Inventory();
+        Repositories.install(skins, prices, inventory,
+                new InMemoryRepositories.Users(inventory), new InMemoryRepositories.Trades());
+    }
+
+    private static String userId(int i) {
+        return String.valueOf(100_000_000_000L + i);
+    }
+
+    private static void print(String label, long[] sorted) {
+        System.out.printf("%-18s %8d %10.3f %10.3f %10.3f %10.3f%n", label, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))] / 1e6;
+    }
+}
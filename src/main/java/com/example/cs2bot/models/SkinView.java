@@ -0,0 +1,117 @@
+package com.example.cs2bot.models;
+
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.prices.PriceSource;
+import org.bson.Document;
+
+import java.awt.Color;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything a case-open reply needs about one catalog skin, worked out once.
+ *
+ * Names, price lookup keys, the rarity color and the static part of the
+ * embed text are computed on first use and cached per skin; a pull only
+ * appends its price and float. A cached view is reused while the catalog
+ * document has the same content — compared by the seeder's {@code _hash}, or
+ * field by field for documents without one — so a skin updated through the
+ * change stream is rebuilt on its next pull, but a fresh copy of an unchanged
+ * skin (every read when the caches aren't live) is not.
+ */
+public record SkinView(
+        Document source,
+        String name,
+        String statTrakName,
+        String wear,
+        String rarity,
+        Color color,
+        String image,
+        double fallbackPrice,
+        double wearFloat,
+        String priceKey,
+        String statTrakPriceKey,
+        String relaxedPriceKey,
+        String description,
+        String statTrakDescription) {
+
+    private static final Map<Object, SkinView> CACHE = new ConcurrentHashMap<>();
+
+    public static SkinView of(Document skin) {
+        Object id = skin.get("_id");
+        if (id == null) return build(skin);
+        SkinView view = CACHE.get(id);
+        if (view == null || !sameContent(view.source, skin)) {
+            view = build(skin);
+            CACHE.put(id, view);
+        }
+        return view;
+    }
+
+    private static boolean sameContent(Document cached, Document skin) {
+        if (cached == skin) return true;
+        Object hash = skin.get("_hash");
+        return hash != null ? hash.equals(cached.get("_hash")) : cached.equals(skin);
+    }
+
+    /** Description up to (and including) the "€" before the price. */
+    public String description(boolean statTrak) {
+        return statTrak ? statTrakDescription : description;
+    }
+
+    private static SkinView build(Document skin) {
+        String rawName = text(skin, "name");
+        String wear = text(skin, "wear");
+        String rarity = text(skin, "rarity");
+        String image = skin.getString("image");
+        if (image != null && image.isBlank()) image = null;
+
+        String name = rawName.replace("?", "★").trim();
+        String statTrakName = InventoryRecords.statTrakName(name);
+        String priceKey = PriceSource.normalizeName(rawName);
+
+        return new SkinView(
+                skin,
+                name,
+                statTrakName,
+                wear,
+                rarity,
+                color(rarity),
+                image,
+                number(skin, "price"),
+                number(skin, "float"),
+                priceKey,
+                InventoryRecords.statTrakName(priceKey),
+                priceKey.replace("★", "").trim(),
+                header(rarity, name, wear),
+                header(rarity, statTrakName, wear));
+    }
+
+    private static String header(String rarity, String name, String wear) {
+        return "You unboxed a **" + rarity + "** skin:\n\n" +
+                "🪙 **" + name + "** (" + wear + ")\n" +
+                "💶 Price: €";
+    }
+
+    private static Color color(String rarity) {
+        return switch (rarity) {
+            case "Consumer Grade" -> new Color(211, 211, 211);
+            case "Industrial Grade" -> new Color(94, 152, 217);
+            case "Mil-Spec" -> new Color(75, 105, 255);
+            case "Restricted" -> new Color(136, 71, 255);
+            case "Classified" -> new Color(211, 44, 230);
+            case "Covert" -> new Color(235, 75, 75);
+            case "Extraordinary" -> new Color(255, 215, 0);
+            default -> Color.WHITE;
+        };
+    }
+
+    private static String text(Document doc, String key) {
+        Object v = doc.get(key);
+        return v instanceof String s && !s.isBlank() ? s : "Unknown";
+    }
+
+    private static double number(Document doc, String key) {
+        return doc.get(key) instanceof Number n ? n.doubleValue() : 0.0;
+    }
+}
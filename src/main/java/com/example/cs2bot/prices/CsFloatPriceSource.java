@@ -0,0 +1,63 @@
+package com.example.cs2bot.prices;
+
+import com.example.cs2bot.utils.SteamMarketAPI;
+import com.example.cs2bot.utils.SteamPriceCache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * CSFloat listings, one request per item. CSFloat has no bulk endpoint, so
+ * each refresh only prices up to {@code maxItems} names, preferring cached
+ * values from {@link SteamPriceCache} over new API calls.
+ */
+public class CsFloatPriceSource implements PriceSource {
+
+    private final Supplier<Collection<String>> names;
+    private final int maxItems;
+
+    public CsFloatPriceSource(Supplier<Collection<String>> names, int maxItems) {
+        this.names = names;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public String name() {
+        return "csfloat";
+    }
+
+    @Override
+    public Map<String, Double> fetchPrices() throws Exception {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String raw : names.get()) wanted.add(PriceSource.normalizeName(raw));
+        // One lookup for the whole catalog instead of a query per name
+        Map<String, Double> cache = SteamPriceCache.getAll(wanted);
+
+        Map<String, Double> prices = new HashMap<>();
+        int fetched = 0;
+
+        for (String name : wanted) {
+            if (Thread.currentThread().isInterrupted()) break;
+
+            Double cached = cache.get(name);
+            if (cached != null) {
+                prices.put(name, cached);
+                continue;
+            }
+
+            if (fetched >= maxItems) continue;
+            fetched++;
+
+            double eur = SteamMarketAPI.getPriceEUR(name);
+            if (eur > 0) {
+                prices.put(name, eur);
+                SteamPriceCache.put(name, eur);
+            }
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.cs2bot.prices;
+
+import com.example.cs2bot.utils.Log;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prices from a local JSON file — for offline runs and performance tests.
+ * Accepts either a Skinport-style item array or a plain {@code {"name": price}} object.
+ */
+public class FilePriceSource implements PriceSource {
+
+    private final Path file;
+
+    public FilePriceSource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public Map<String, Double> fetchPrices() throws Exception {
+        JsonElement root;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(in);
+        }
+
+        Map<String, Double> prices;
+        if (root.isJsonArray()) {
+            prices = SkinportPriceSource.readItemArray(root.getAsJsonArray());
+        } else {
+            prices = new HashMap<>();
+            for (Map.Entry<String, JsonElement> e : root.getAsJsonObject().entrySet()) {
+                try {
+                    double price = e.getValue().getAsDouble();
+                    if (price > 0) prices.put(PriceSource.normalizeName(e.getKey()), price);
+                } catch (Exception ignored) {}
+            }
+        }
+
+        Log.info("FilePrices", "📄 Loaded prices from file", "count", prices.size(), "file", file);
+        return prices;
+    }
+}
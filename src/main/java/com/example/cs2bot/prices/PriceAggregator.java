@@ -0,0 +1,182 @@
+package com.example.cs2bot.prices;
+
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.utils.Log;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Fetches every configured {@link PriceSource} in parallel and merges the
+ * results into one price table.
+ *
+ * Each source has its own timeout measured from the start of the refresh, so
+ * a slow source never delays the others; a source that times out or fails
+ * simply contributes nothing to that round.
+ */
+public class PriceAggregator {
+
+    public enum MergePolicy {
+        /** Cheapest quote across sources. */
+        MIN,
+        /** Median of all quotes (mean of the middle two for an even count). */
+        MEDIAN,
+        /** First source in configured order that has the item. */
+        PREFERRED;
+
+        static MergePolicy parse(String value) {
+            if (value == null || value.isBlank()) return PREFERRED;
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                Log.warn("PriceAggregator", "⚠️ Unknown PRICE_MERGE, using PREFERRED", "value", value);
+                return PREFERRED;
+            }
+        }
+    }
+
+    private static final long DEFAULT_TIMEOUT_MS = 180_000;
+
+    private final List<PriceSource> sources;
+    private final Map<String, Long> timeouts;
+    private final long defaultTimeoutMs;
+    private final MergePolicy policy;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "price-source");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PriceAggregator(List<PriceSource> sources, MergePolicy policy,
+                           long defaultTimeoutMs, Map<String, Long> timeouts) {
+        this.sources = List.copyOf(sources);
+        this.policy = policy;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.timeouts = Map.copyOf(timeouts);
+    }
+
+    /**
+     * Build from config: {@code PRICE_SOURCES=skinport,csfloat,file} (preference order),
+     * {@code PRICE_MERGE=min|median|preferred}, {@code PRICE_TIMEOUT_MS},
+     * {@code PRICE_TIMEOUT_<SOURCE>}, {@code PRICE_FIXTURE_FILE}, {@code CSFLOAT_MAX_ITEMS},
+     * {@code SKINPORT_HEDGE_MS}.
+     */
+    public static PriceAggregator fromConfig(BotConfig config) {
+        List<PriceSource> sources = new ArrayList<>();
+        Map<String, Long> timeouts = new HashMap<>();
+
+        for (String id : sourceIds(config)) {
+            PriceSource source = switch (id) {
+                case "skinport" -> new SkinportPriceSource(config.getLong("SKINPORT_HEDGE_MS", 5_000));
+                case "csfloat" -> new CsFloatPriceSource(LocalCaches::skinNames,
+                        config.getInt("CSFLOAT_MAX_ITEMS", 25));
+                case "file" -> new FilePriceSource(Path.of(config.getOrDefault("PRICE_FIXTURE_FILE", "seed/prices.json")));
+                default -> {
+                    Log.warn("PriceAggregator", "⚠️ Unknown price source", "source", id);
+                    yield null;
+                }
+            };
+            if (source == null) continue;
+
+            sources.add(source);
+            long t = config.getLong("PRICE_TIMEOUT_" + id.toUpperCase(), -1);
+            if (t > 0) timeouts.put(id, t);
+        }
+
+        long defaultTimeout = config.getLong("PRICE_TIMEOUT_MS", DEFAULT_TIMEOUT_MS);
+        MergePolicy policy = MergePolicy.parse(config.get("PRICE_MERGE"));
+
+        Log.info("PriceAggregator", "🧩 Price sources configured",
+                "sources", sources.stream().map(PriceSource::name).toList(), "merge", policy);
+        return new PriceAggregator(sources, policy, defaultTimeout, timeouts);
+    }
+
+    /** Configured source IDs from {@code PRICE_SOURCES}, lower-cased, in preference order. */
+    public static List<String> sourceIds(BotConfig config) {
+        List<String> ids = new ArrayList<>();
+        for (String raw : config.getOrDefault("PRICE_SOURCES", "skinport").split(",")) {
+            String id = raw.trim().toLowerCase();
+            if (!id.isEmpty()) ids.add(id);
+        }
+        return ids;
+    }
+
+    public List<PriceSource> getSources() {
+        return sources;
+    }
+
+    /** Fetch all sources in parallel and merge. Empty if every source failed. */
+    public Map<String, Double> fetchAll() {
+        long start = System.currentTimeMillis();
+
+        List<Future<Map<String, Double>>> futures = new ArrayList<>(sources.size());
+        for (PriceSource source : sources) {
+            futures.add(pool.submit(source::fetchPrices));
+        }
+
+        List<Map<String, Double>> results = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            PriceSource source = sources.get(i);
+            Future<Map<String, Double>> f = futures.get(i);
+            long deadline = start + timeouts.getOrDefault(source.name(), defaultTimeoutMs);
+
+            Map<String, Double> result = Collections.emptyMap();
+            try {
+                result = f.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (result == null) result = Collections.emptyMap();
+            } catch (TimeoutException e) {
+                f.cancel(true);
+                Log.warn("PriceAggregator", "⏱️ Source timed out", "source", source.name());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(x -> x.cancel(true));
+                return Collections.emptyMap();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                Log.warn("PriceAggregator", "⚠️ Source failed", "source", source.name(), "error", cause.getMessage());
+            }
+            results.add(result);
+        }
+
+        Map<String, Double> merged = merge(results);
+        Log.info("PriceAggregator", "✅ Prices merged", "count", merged.size(), "sources", sources.size(),
+                "ms", System.currentTimeMillis() - start);
+        return merged;
+    }
+
+    /** @param results one table per source, in preference order */
+    Map<String, Double> merge(List<Map<String, Double>> results) {
+        if (results.size() == 1) return new HashMap<>(results.get(0));
+
+        Map<String, Double> merged = new HashMap<>();
+        switch (policy) {
+            case PREFERRED -> {
+                // Walk in reverse so earlier (preferred) sources overwrite later ones
+                for (int i = results.size() - 1; i >= 0; i--) merged.putAll(results.get(i));
+            }
+            case MIN -> {
+                for (Map<String, Double> r : results) {
+                    r.forEach((name, price) -> merged.merge(name, price, Math::min));
+                }
+            }
+            case MEDIAN -> {
+                Map<String, List<Double>> quotes = new HashMap<>();
+                for (Map<String, Double> r : results) {
+                    r.forEach((name, price) -> quotes.computeIfAbsent(name, k -> new ArrayList<>(2)).add(price));
+                }
+                quotes.forEach((name, list) -> merged.put(name, median(list)));
+            }
+        }
+        return merged;
+    }
+
+    private static double median(List<Double> values) {
+        if (values.size() == 1) return values.get(0);
+        Collections.sort(values);
+        int mid = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(mid) : (values.get(mid - 1) + values.get(mid)) / 2.0;
+    }
+}
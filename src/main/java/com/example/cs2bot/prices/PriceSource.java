@@ -0,0 +1,32 @@
+package com.example.cs2bot.prices;
+
+import java.util.Map;
+
+/**
+ * A provider of EUR item prices (Skinport, CSFloat, a local fixture, ...).
+ * Implementations are fetched in parallel by {@link PriceAggregator}.
+ */
+public interface PriceSource {
+
+    /** Short lower-case ID used in config and logs, e.g. {@code skinport}. */
+    String name();
+
+    /**
+     * Fetch a price table keyed by normalized market hash name.
+     * May block; the aggregator enforces the timeout.
+     */
+    Map<String, Double> fetchPrices() throws Exception;
+
+    /** Canonical item name used as the key in every price table. */
+    static String normalizeName(String name) {
+        if (name == null) return "";
+        String n = name.trim();
+        if (n.startsWith("? ")) n = "★ " + n.substring(2);
+        if (n.startsWith("?")) n = "★ " + n.substring(1).trim();
+        if ((n.contains("Gloves") || n.contains("Knife") || n.contains("Hand Wraps"))
+                && !n.startsWith("★ ")) {
+            n = "★ " + n;
+        }
+        return n;
+    }
+}
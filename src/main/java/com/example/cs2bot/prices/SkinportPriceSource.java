@@ -0,0 +1,343 @@
+package com.example.cs2bot.prices;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.example.cs2bot.utils.CircuitBreaker;
+import com.example.cs2bot.utils.Log;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.brotli.BrotliInterceptor;
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ProxySelector;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Skinport bulk item list (one request for the whole market).
+ *
+ * The direct API and the AllOrigins proxy are raced as hedged requests: the
+ * last healthy route goes first, and the other one is launched if no answer
+ * arrives within the hedge delay (or the first one fails). A route only wins,
+ * and only counts as healthy, once its body parses into a non-empty price
+ * table — a 200 error page from the proxy is a failure like any other. Each
+ * route has a {@link CircuitBreaker}, so a blocked route is skipped until its
+ * backoff expires.
+ */
+public class SkinportPriceSource implements PriceSource {
+
+    private static final String SKINPORT_DIRECT_URL =
+            "https://api.skinport.com/v1/items?app_id=730&currency=EUR&tradable=1";
+
+    private static final String SKINPORT_PROXY_URL =
+            "https://api.allorigins.win/raw?url=https://api.skinport.com/v1/items?app_id=730&currency=EUR&tradable=1";
+
+    private enum Route {
+        DIRECT(SKINPORT_DIRECT_URL), PROXY(SKINPORT_PROXY_URL);
+
+        final String url;
+
+        Route(String url) {
+            this.url = url;
+        }
+
+        Route other() {
+            return this == DIRECT ? PROXY : DIRECT;
+        }
+    }
+
+    private record Result(Route route, Map<String, Double> prices) {}
+
+    private static final long DEFAULT_HEDGE_DELAY_MS = 5_000;
+
+    private static final Map<Route, CircuitBreaker> breakers = Map.of(
+            Route.DIRECT, new CircuitBreaker("skinport-direct", 1, 60_000, 60 * 60_000),
+            Route.PROXY, new CircuitBreaker("skinport-proxy", 1, 60_000, 60 * 60_000));
+
+    // Last route that delivered a non-empty price table — tried first next time
+    private static volatile Route preferred = Route.DIRECT;
+
+    private final OkHttpClient httpClient;
+    private final long hedgeDelayMs;
+
+    public SkinportPriceSource() {
+        this(DEFAULT_HEDGE_DELAY_MS);
+    }
+
+    /** @param hedgeDelayMs how long the first route gets before the second one is raced against it */
+    public SkinportPriceSource(long hedgeDelayMs) {
+        this.hedgeDelayMs = hedgeDelayMs;
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .proxySelector(ProxySelector.getDefault())
+                .connectTimeout(java.time.Duration.ofSeconds(15))
+                .readTimeout(java.time.Duration.ofSeconds(120))
+                // Bounds each hedged attempt so a stuck route can't hold a refresh forever
+                .callTimeout(java.time.Duration.ofSeconds(150))
+                .retryOnConnectionFailure(true);
+
+        try {
+            builder.addInterceptor(BrotliInterceptor.INSTANCE);
+            Log.debug("Skinport", "🌐 BrotliInterceptor loaded");
+        } catch (Throwable t) {
+            Log.warn("Skinport", "⚠️ Failed to load BrotliInterceptor", "error", t.getMessage());
+        }
+
+        httpClient = builder.build();
+        Log.debug("Skinport", "🌐 System proxy support enabled");
+    }
+
+    @Override
+    public String name() {
+        return "skinport";
+    }
+
+    @Override
+    public Map<String, Double> fetchPrices() throws Exception {
+        Route first = preferred;
+        if (!breakers.get(first).allowRequest()) first = first.other();
+        if (!breakers.get(first).allowRequest()) {
+            Log.warn("Skinport", "⚠️ Both routes are cooling down — skipping this refresh");
+            return Collections.emptyMap();
+        }
+        Route second = first.other();
+
+        CompletableFuture<Result> winner = new CompletableFuture<>();
+        CompletableFuture<Void> firstFailed = new CompletableFuture<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicBoolean launchesDone = new AtomicBoolean(false);
+        Map<Route, Call> calls = new ConcurrentHashMap<>();
+
+        calls.put(first, launch(first, winner, firstFailed, inFlight, launchesDone));
+
+        // 🏁 Give the first route a head start, then race the second one
+        try {
+            CompletableFuture.anyOf(winner, firstFailed).get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ignored) {}
+
+        if (!winner.isDone() && breakers.get(second).allowRequest()) {
+            Log.info("Skinport", "🏁 First route slow or failing — racing the other", "first", first, "second", second);
+            calls.put(second, launch(second, winner, new CompletableFuture<>(), inFlight, launchesDone));
+        }
+        launchesDone.set(true);
+        if (inFlight.get() == 0) {
+            winner.completeExceptionally(new IOException("All Skinport routes failed"));
+        }
+
+        Result result;
+        try {
+            result = winner.get();
+        } catch (ExecutionException e) {
+            Log.warn("Skinport", "⚠️ No route delivered prices", "error",
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return Collections.emptyMap();
+        } catch (InterruptedException e) {
+            // Aggregator timed us out
+            calls.values().forEach(Call::cancel);
+            throw e;
+        }
+
+        // Stop the losing request
+        calls.forEach((route, call) -> {
+            if (route != result.route()) call.cancel();
+        });
+
+        preferred = result.route();
+        Log.info("Skinport", "✅ Loaded Skinport prices", "count", result.prices().size(), "route", result.route());
+        return result.prices();
+    }
+
+    private Call launch(Route route, CompletableFuture<Result> winner, CompletableFuture<Void> failed,
+                               AtomicInteger inFlight, AtomicBoolean launchesDone) {
+        CircuitBreaker breaker = breakers.get(route);
+        Call call = httpClient.newCall(buildRequest(route));
+        inFlight.incrementAndGet();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call c, Response response) {
+                int code = response.code();
+                if (code == 429 || code == 406 || code == 403 || code >= 500) {
+                    Log.warn("Skinport", "⚠️ Route answered with an error status", "route", route, "status", code);
+                    response.close();
+                    breaker.recordFailure();
+                    fail(new IOException("HTTP " + code + " from " + route));
+                    return;
+                }
+
+                Map<String, Double> prices;
+                try (response) {
+                    prices = parse(response);
+                } catch (Exception e) {
+                    if (!c.isCanceled()) {
+                        Log.warn("Skinport", "⚠️ Route body unreadable", "route", route, "error", e.getMessage());
+                    }
+                    prices = Collections.emptyMap();
+                }
+
+                if (prices.isEmpty()) {
+                    // Cancelled because the other route won — not the route's fault
+                    if (!c.isCanceled()) breaker.recordFailure();
+                    fail(new IOException("No usable prices from " + route));
+                    return;
+                }
+
+                breaker.recordSuccess();
+                winner.complete(new Result(route, prices));
+                inFlight.decrementAndGet();
+            }
+
+            @Override
+            public void onFailure(Call c, IOException e) {
+                // Cancelled because the other route won — not the route's fault
+                if (!c.isCanceled()) {
+                    Log.warn("Skinport", "⚠️ Route failed", "route", route, "error", e.getMessage());
+                    breaker.recordFailure();
+                }
+                fail(e);
+            }
+
+            private void fail(IOException e) {
+                failed.complete(null);
+                if (inFlight.decrementAndGet() == 0 && launchesDone.get()) {
+                    winner.completeExceptionally(e);
+                }
+            }
+        });
+        return call;
+    }
+
+    private static Request buildRequest(Route route) {
+        Request.Builder b = new Request.Builder()
+                .url(route.url)
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.0.0 Safari/537.36")
+                .header("Accept", "application/json, text/plain, */*")
+                .header("Accept-Encoding", "gzip, deflate, br");
+
+        if (route == Route.DIRECT) {
+            b.header("Accept-Language", "en-US,en;q=0.9")
+                    .header("Origin", "https://skinport.com")
+                    .header("Referer", "https://skinport.com/")
+                    .header("Connection", "keep-alive")
+                    .header("Cache-Control", "no-cache");
+        }
+        return b.build();
+    }
+
+    private static Map<String, Double> parse(Response response) throws Exception {
+        ResponseBody body = response.body();
+        if (body == null) {
+            Log.warn("Skinport", "⚠️ Empty Skinport response");
+            return Collections.emptyMap();
+        }
+
+        // 🧩 Universal decompression and cleanup
+        byte[] rawBytes = body.bytes();
+        String jsonString = new String(rawBytes, StandardCharsets.UTF_8).trim();
+
+        // Detect binary data and try Brotli/GZIP manually
+        if (!jsonString.startsWith("[") && !jsonString.startsWith("{") &&
+                jsonString.chars().filter(c -> c < 32).count() > 10) {
+            try {
+                String encoding = response.header("Content-Encoding", "").toLowerCase();
+
+                if (encoding.contains("br") || jsonString.contains(" ")) {
+                    ByteArrayInputStream in = new ByteArrayInputStream(rawBytes);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    BrotliInputStream brotli = new BrotliInputStream(in);
+                    brotli.transferTo(out);
+                    brotli.close();
+                    jsonString = out.toString(StandardCharsets.UTF_8);
+                    Log.debug("Skinport", "✅ Brotli decompressed manually");
+                } else if (encoding.contains("gzip")) {
+                    ByteArrayInputStream in = new ByteArrayInputStream(rawBytes);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    GZIPInputStream gzip = new GZIPInputStream(in);
+                    gzip.transferTo(out);
+                    gzip.close();
+                    jsonString = out.toString(StandardCharsets.UTF_8);
+                    Log.debug("Skinport", "✅ GZIP decompressed manually");
+                }
+            } catch (Exception ex) {
+                Log.warn("Skinport", "⚠️ Manual decompression failed", "error", ex.getMessage());
+            }
+        }
+
+        // Extract proxy wrapper
+        if (jsonString.startsWith("{") && jsonString.contains("\"contents\"")) {
+            try {
+                JsonObject wrapper = JsonParser.parseString(jsonString).getAsJsonObject();
+                if (wrapper.has("contents")) {
+                    jsonString = wrapper.get("contents").getAsString();
+                    Log.debug("Skinport", "🪞 Extracted AllOrigins 'contents' wrapper");
+                }
+            } catch (Exception ignored) {}
+        }
+
+        // Trim junk before JSON array
+        if (!jsonString.startsWith("[") && jsonString.contains("[")) {
+            jsonString = jsonString.substring(jsonString.indexOf('['));
+        }
+        jsonString = jsonString.trim();
+
+        // ✅ Parse JSON safely
+        JsonReader reader = new JsonReader(new java.io.StringReader(jsonString));
+        reader.setLenient(true);
+        JsonElement parsed;
+
+        try {
+            parsed = JsonParser.parseReader(reader);
+        } catch (Exception parseEx) {
+            Log.warn("Skinport", "⚠️ JSON parse issue", "error", parseEx.getMessage(),
+                    "snippet", jsonString.substring(0, Math.min(200, jsonString.length())));
+            return Collections.emptyMap();
+        }
+
+        if (!parsed.isJsonArray()) {
+            Log.warn("Skinport", "⚠️ Unexpected response (not JSON array)",
+                    "snippet", jsonString.substring(0, Math.min(120, jsonString.length())));
+            return Collections.emptyMap();
+        }
+
+        return readItemArray(parsed.getAsJsonArray());
+    }
+
+    /** Skinport item array → normalized name → lowest price. Shared with fixtures. */
+    static Map<String, Double> readItemArray(JsonArray arr) {
+        Map<String, Double> prices = new HashMap<>();
+        for (JsonElement el : arr) {
+            if (!el.isJsonObject()) continue;
+            JsonObject o = el.getAsJsonObject();
+            if (!o.has("market_hash_name")) continue;
+
+            String n = PriceSource.normalizeName(o.get("market_hash_name").getAsString());
+            double price = safeDouble(o, "lowest_price");
+            if (price <= 0) price = safeDouble(o, "min_price");
+            if (price <= 0) continue;
+
+            prices.put(n, price);
+        }
+        return prices;
+    }
+
+    private static double safeDouble(JsonObject o, String key) {
+        try {
+            return o.get(key).getAsDouble();
+        } catch (Exception e) {
+            return 0.0;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.cs2bot.repo;
+
+import com.example.cs2bot.models.Trade;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Process-local repositories with the same semantics as the Mongo ones.
+ * Used by the load-test harness to measure the bot's own overhead with the
+ * database taken out of the picture.
+ */
+public class InMemoryRepositories {
+
+    public static class Skins implements SkinRepository {
+        private final Map<Object, Document> byId = new ConcurrentHashMap<>();
+        private volatile List<Document> all = List.of();
+
+        public synchronized void put(Document skin) {
+            byId.put(skin.get("_id"), skin);
+            all = List.copyOf(byId.values());
+        }
+
+        public synchronized void putAll(Collection<Document> skins) {
+            for (Document skin : skins) byId.put(skin.get("_id"), skin);
+            all = List.copyOf(byId.values());
+        }
+
+        @Override
+        public Document random() {
+            List<Document> snapshot = all;
+            return snapshot.isEmpty() ? null : snapshot.get(ThreadLocalRandom.current().nextInt(snapshot.size()));
+        }
+
+        @Override
+        public Document byId(Object id) {
+            return id == null ? null : byId.get(id);
+        }
+
+        @Override
+        public Map<Object, Document> byIds(Collection<?> ids) {
+            Map<Object, Document> found = new HashMap<>();
+            for (Object id : ids) {
+                Document skin = byId(id);
+                if (skin != null) found.put(id, skin);
+            }
+            return found;
+        }
+    }
+
+    public static class Prices implements PriceRepository {
+        private final Map<String, Document> byName = new ConcurrentHashMap<>();
+
+        public void put(String name, double price) {
+            byName.put(name, new Document("_id", name).append("price", price));
+        }
+
+        @Override
+        public Document byName(String name) {
+            return name == null ? null : byName.get(name);
+        }
+    }
+
+    public static class Inventory implements InventoryRepository {
+        // Per user, oldest first
+        private final Map<String, List<Document>> byUser = new ConcurrentHashMap<>();
+        private final Set<Object> interactionIds = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean insert(Document item) {
+            Object interactionId = item.get("interaction_id");
+            if (interactionId != null && !interactionIds.add(interactionId)) return false;
+            if (!item.containsKey("_id")) item.put("_id", new ObjectId());
+            List<Document> items = byUser.computeIfAbsent(item.getString("user_id"),
+                    k -> Collections.synchronizedList(new ArrayList<>()));
+            items.add(item);
+            return true;
+        }
+
+        @Override
+        public List<Document> recent(String userId, int limit) {
+            List<Document> items = byUser.get(userId);
+            if (items == null) return new ArrayList<>();
+            synchronized (items) {
+                List<Document> out = new ArrayList<>(Math.min(limit, items.size()));
+                for (int i = items.size() - 1; i >= 0 && out.size() < limit; i--) out.add(items.get(i));
+                return out;
+            }
+        }
+
+        @Override
+        public long count(String userId) {
+            List<Document> items = byUser.get(userId);
+            return items != null ? items.size() : 0;
+        }
+    }
+
+    public static class Users implements UserRepository {
+        private static final class Account {
+            int keys;
+            long lastGrant = Long.MIN_VALUE;
+        }
+
+        private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+        private final InventoryRepository inventory;
+
+        /** @param inventory where {@link #openWithKey} stores items */
+        public Users(InventoryRepository inventory) {
+            this.inventory = inventory;
+        }
+
+        private Account account(String userId) {
+            return accounts.computeIfAbsent(userId, k -> new Account());
+        }
+
+        @Override
+        public boolean consumeKey(String userId) {
+            Account a = accounts.get(userId);
+            if (a == null) return false;
+            synchronized (a) {
+                if (a.keys <= 0) return false;
+                a.keys--;
+                return true;
+            }
+        }
+
+        @Override
+        public OpenResult openWithKey(String userId, Document item) {
+            if (!consumeKey(userId)) return OpenResult.NO_KEYS;
+            // Nothing in memory can fail halfway, so give the key back only on a duplicate
+            if (inventory.insert(item)) return OpenResult.OPENED;
+            refundKey(userId);
+            return OpenResult.DUPLICATE;
+        }
+
+        @Override
+        public void refundKey(String userId) {
+            Account a = account(userId);
+            synchronized (a) {
+                a.keys++;
+            }
+        }
+
+        @Override
+        public int grantKeys(String userId, int amount, long cooldownMs) {
+            Account a = account(userId);
+            long now = System.currentTimeMillis();
+            synchronized (a) {
+                if (a.lastGrant != Long.MIN_VALUE && a.lastGrant > now - cooldownMs) return ON_COOLDOWN;
+                a.keys += amount;
+                a.lastGrant = now;
+                return a.keys;
+            }
+        }
+
+        @Override
+        public int keys(String userId) {
+            Account a = accounts.get(userId);
+            if (a == null) return 0;
+            synchronized (a) {
+                return a.keys;
+            }
+        }
+
+        @Override
+        public long cooldownLeft(String userId, long cooldownMs) {
+            Account a = accounts.get(userId);
+            if (a == null) return 0;
+            synchronized (a) {
+                if (a.lastGrant == Long.MIN_VALUE) return 0;
+                return Math.max(0, a.lastGrant + cooldownMs - System.currentTimeMillis());
+            }
+        }
+    }
+
+    public static class Trades implements TradeRepository {
+        private final Map<String, Trade> byId = new ConcurrentHashMap<>();
+
+        @Override
+        public String create(Trade trade) {
+            trade.id = new ObjectId().toHexString();
+            byId.put(trade.id, trade);
+            return trade.id;
+        }
+
+        @Override
+        public Trade byId(String id) {
+            return id == null ? null : byId.get(id);
+        }
+
+        @Override
+        public List<Trade> forUser(String userId) {
+            List<Trade> trades = new ArrayList<>();
+            for (Trade t : byId.values()) {
+                if (userId.equals(t.from) || userId.equals(t.to)) trades.add(t);
+            }
+            return trades;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.cs2bot.repo;
+
+import org.bson.Document;
+
+import java.util.List;
+
+/** Pulled items ({@code inventory}), one document per item. */
+public interface InventoryRepository {
+
+    /**
+     * Stores the item and sets its {@code _id}. Returns false (and stores
+     * nothing) when an item with the same {@code interaction_id} exists.
+     */
+    boolean insert(Document item);
+
+    /** The user's newest items first. */
+    List<Document> recent(String userId, int limit);
+
+    long count(String userId);
+}
@@ -0,0 +1,239 @@
+package com.example.cs2bot.repo;
+
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.models.Trade;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MongoDB-backed repositories. Skins and prices are served from
+ * {@link LocalCaches} while the change streams are live.
+ */
+public class MongoRepositories {
+
+    private static MongoCollection<Document> collection(String name) {
+        return MongoUtil.getDB().getCollection(name);
+    }
+
+    /** Secondary-preferred: catalog lookups and inventory views tolerate replication lag. */
+    private static MongoCollection<Document> readCollection(String name) {
+        return MongoUtil.getReadDB().getCollection(name);
+    }
+
+    private static boolean isDuplicateKey(MongoServerException e) {
+        return ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY;
+    }
+
+    public static class Skins implements SkinRepository {
+        @Override
+        public Document random() {
+            if (LocalCaches.SKINS.isLive()) {
+                List<Document> all = LocalCaches.SKINS.values();
+                return all.isEmpty() ? null : all.get(ThreadLocalRandom.current().nextInt(all.size()));
+            }
+            MongoCollection<Document> skins = readCollection("skins");
+            long count = skins.countDocuments();
+            if (count == 0) return null;
+            return skins.find().skip(ThreadLocalRandom.current().nextInt((int) count)).first();
+        }
+
+        @Override
+        public Document byId(Object id) {
+            if (LocalCaches.SKINS.isLive()) return LocalCaches.SKINS.get(id);
+            return readCollection("skins").find(Filters.eq("_id", id)).first();
+        }
+
+        @Override
+        public Map<Object, Document> byIds(Collection<?> ids) {
+            Map<Object, Document> found = new HashMap<>();
+            Set<Object> missing = new HashSet<>();
+            for (Object id : ids) {
+                Document skin = LocalCaches.SKINS.isLive() ? LocalCaches.SKINS.get(id) : null;
+                if (skin != null) found.put(id, skin);
+                else missing.add(id);
+            }
+            if (!missing.isEmpty()) {
+                for (Document skin : readCollection("skins").find(Filters.in("_id", missing))) {
+                    found.put(skin.get("_id"), skin);
+                }
+            }
+            return found;
+        }
+    }
+
+    public static class Prices implements PriceRepository {
+        @Override
+        public Document byName(String name) {
+            if (LocalCaches.PRICES.isLive()) return LocalCaches.PRICES.get(name);
+            return readCollection("prices").find(Filters.eq("_id", name)).first();
+        }
+    }
+
+    public static class Inventory implements InventoryRepository {
+        @Override
+        public boolean insert(Document item) {
+            try {
+                collection("inventory").insertOne(item);
+                return true;
+            } catch (MongoServerException e) {
+                // Unique interaction_id: this click was already stored
+                if (isDuplicateKey(e)) return false;
+                throw e;
+            }
+        }
+
+        @Override
+        public List<Document> recent(String userId, int limit) {
+            return readCollection("inventory").find(Filters.eq("user_id", userId))
+                    .sort(Sorts.descending("opened_at"))
+                    .limit(limit)
+                    .into(new ArrayList<>());
+        }
+
+        @Override
+        public long count(String userId) {
+            return readCollection("inventory").countDocuments(Filters.eq("user_id", userId));
+        }
+    }
+
+    public static class Users implements UserRepository {
+        private static final FindOneAndUpdateOptions KEYS_AFTER = new FindOneAndUpdateOptions()
+                .returnDocument(ReturnDocument.AFTER)
+                .projection(Projections.include("keys"));
+
+        @Override
+        public boolean consumeKey(String userId) {
+            return collection("users").findOneAndUpdate(
+                    Filters.and(Filters.eq("_id", userId), Filters.gt("keys", 0)),
+                    Updates.inc("keys", -1),
+                    KEYS_AFTER) != null;
+        }
+
+        @Override
+        public OpenResult openWithKey(String userId, Document item) {
+            if (!MongoUtil.supportsTransactions()) return openWithRefund(userId, item);
+
+            try (ClientSession session = MongoUtil.getClient().startSession()) {
+                return session.withTransaction(() -> {
+                    if (collection("users").findOneAndUpdate(session,
+                            Filters.and(Filters.eq("_id", userId), Filters.gt("keys", 0)),
+                            Updates.inc("keys", -1), KEYS_AFTER) == null) {
+                        return OpenResult.NO_KEYS;
+                    }
+                    collection("inventory").insertOne(session, item);
+                    return OpenResult.OPENED;
+                });
+            } catch (MongoServerException e) {
+                // Aborted, so the key was never taken
+                if (isDuplicateKey(e)) return OpenResult.DUPLICATE;
+                throw e;
+            }
+        }
+
+        /**
+         * Standalone servers: take the key, then insert, refunding if the insert
+         * is rejected. A client-side error after the server applied the insert
+         * still refunds, which is why replica sets use the transaction.
+         */
+        private OpenResult openWithRefund(String userId, Document item) {
+            if (!consumeKey(userId)) return OpenResult.NO_KEYS;
+            try {
+                if (new Inventory().insert(item)) return OpenResult.OPENED;
+                refundKey(userId);
+                return OpenResult.DUPLICATE;
+            } catch (RuntimeException e) {
+                refundKey(userId);
+                throw e;
+            }
+        }
+
+        @Override
+        public void refundKey(String userId) {
+            collection("users").updateOne(Filters.eq("_id", userId), Updates.inc("keys", 1));
+        }
+
+        @Override
+        public int grantKeys(String userId, int amount, long cooldownMs) {
+            Date now = new Date();
+            try {
+                Document after = collection("users").findOneAndUpdate(
+                        Filters.and(Filters.eq("_id", userId), Filters.or(
+                                Filters.exists("last_key_at", false),
+                                Filters.lte("last_key_at", new Date(now.getTime() - cooldownMs)))),
+                        Updates.combine(Updates.inc("keys", amount), Updates.set("last_key_at", now)),
+                        new FindOneAndUpdateOptions().upsert(true)
+                                .returnDocument(ReturnDocument.AFTER)
+                                .projection(Projections.include("keys")));
+                return after != null ? after.getInteger("keys", 0) : ON_COOLDOWN;
+            } catch (MongoServerException e) {
+                // Filter missed an existing user → the upsert collides on _id: still cooling down.
+                // findOneAndUpdate reports that as a MongoCommandException, not a MongoWriteException.
+                if (isDuplicateKey(e)) return ON_COOLDOWN;
+                throw e;
+            }
+        }
+
+        @Override
+        public int keys(String userId) {
+            Document d = collection("users").find(Filters.eq("_id", userId))
+                    .projection(Projections.include("keys")).first();
+            return d != null ? d.getInteger("keys", 0) : 0;
+        }
+
+        @Override
+        public long cooldownLeft(String userId, long cooldownMs) {
+            Document d = collection("users").find(Filters.eq("_id", userId))
+                    .projection(Projections.include("last_key_at")).first();
+            Date last = d != null ? d.getDate("last_key_at") : null;
+            if (last == null) return 0;
+            return Math.max(0, last.getTime() + cooldownMs - System.currentTimeMillis());
+        }
+    }
+
+    public static class Trades implements TradeRepository {
+        @Override
+        public String create(Trade trade) {
+            Document d = trade.toDocument();
+            collection("trades").insertOne(d);
+            trade.id = d.getObjectId("_id").toHexString();
+            return trade.id;
+        }
+
+        @Override
+        public Trade byId(String id) {
+            if (!ObjectId.isValid(id)) return null;
+            Document d = collection("trades").find(Filters.eq("_id", new ObjectId(id))).first();
+            return d != null ? Trade.fromDocument(d) : null;
+        }
+
+        @Override
+        public List<Trade> forUser(String userId) {
+            List<Trade> trades = new ArrayList<>();
+            for (Document d : collection("trades").find(Filters.or(Filters.eq("from", userId), Filters.eq("to", userId)))) {
+                trades.add(Trade.fromDocument(d));
+            }
+            return trades;
+        }
+    }
+}
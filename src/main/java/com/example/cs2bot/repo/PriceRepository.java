@@ -0,0 +1,10 @@
+package com.example.cs2bot.repo;
+
+import org.bson.Document;
+
+/** Persisted item prices ({@code prices}), keyed by normalized market name. */
+public interface PriceRepository {
+
+    /** The price document ({@code _id, price, updated}) or null. */
+    Document byName(String name);
+}
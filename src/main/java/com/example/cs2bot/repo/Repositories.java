@@ -0,0 +1,43 @@
+package com.example.cs2bot.repo;
+
+/**
+ * The repositories handlers use. Mongo-backed by default; the load-test
+ * harness swaps in {@link InMemoryRepositories} via {@link #install}.
+ */
+public class Repositories {
+
+    private static volatile SkinRepository skins = new MongoRepositories.Skins();
+    private static volatile PriceRepository prices = new MongoRepositories.Prices();
+    private static volatile InventoryRepository inventory = new MongoRepositories.Inventory();
+    private static volatile UserRepository users = new MongoRepositories.Users();
+    private static volatile TradeRepository trades = new MongoRepositories.Trades();
+
+    public static void install(SkinRepository skinRepo, PriceRepository priceRepo, InventoryRepository inventoryRepo,
+                               UserRepository userRepo, TradeRepository tradeRepo) {
+        skins = skinRepo;
+        prices = priceRepo;
+        inventory = inventoryRepo;
+        users = userRepo;
+        trades = tradeRepo;
+    }
+
+    public static SkinRepository skins() {
+        return skins;
+    }
+
+    public static PriceRepository prices() {
+        return prices;
+    }
+
+    public static InventoryRepository inventory() {
+        return inventory;
+    }
+
+    public static UserRepository users() {
+        return users;
+    }
+
+    public static TradeRepository trades() {
+        return trades;
+    }
+}
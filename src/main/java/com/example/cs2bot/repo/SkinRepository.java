@@ -0,0 +1,18 @@
+package com.example.cs2bot.repo;
+
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.Map;
+
+/** The skin catalog ({@code skins}). */
+public interface SkinRepository {
+
+    /** A uniformly random catalog entry, or null if the catalog is empty. */
+    Document random();
+
+    Document byId(Object id);
+
+    /** Every found skin by ID; missing IDs are simply absent. */
+    Map<Object, Document> byIds(Collection<?> ids);
+}
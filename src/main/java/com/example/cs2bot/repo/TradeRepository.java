@@ -0,0 +1,17 @@
+package com.example.cs2bot.repo;
+
+import com.example.cs2bot.models.Trade;
+
+import java.util.List;
+
+/** Trade offers ({@code trades}). */
+public interface TradeRepository {
+
+    /** Stores a new trade and returns its ID. */
+    String create(Trade trade);
+
+    Trade byId(String id);
+
+    /** Trades the user started or received. */
+    List<Trade> forUser(String userId);
+}
@@ -0,0 +1,39 @@
+package com.example.cs2bot.repo;
+
+import org.bson.Document;
+
+/**
+ * Per-user counters ({@code users}). Every method is a single atomic step,
+ * safe under concurrent clicks from the same user.
+ */
+public interface UserRepository {
+
+    /** Returned by {@link #grantKeys} while the grant cooldown is running. */
+    int ON_COOLDOWN = -1;
+
+    /** Outcome of {@link #openWithKey}. */
+    enum OpenResult { OPENED, NO_KEYS, DUPLICATE }
+
+    /**
+     * Takes one key and stores {@code item} in the inventory as one unit:
+     * either both happen or neither does. {@link OpenResult#DUPLICATE} when an
+     * item with the same {@code interaction_id} is already stored.
+     */
+    OpenResult openWithKey(String userId, Document item);
+
+    /** Takes one key; false if the user has none. */
+    boolean consumeKey(String userId);
+
+    void refundKey(String userId);
+
+    /**
+     * Adds keys if the last grant is older than {@code cooldownMs}, creating
+     * the user if needed. Returns the new balance or {@link #ON_COOLDOWN}.
+     */
+    int grantKeys(String userId, int amount, long cooldownMs);
+
+    int keys(String userId);
+
+    /** Ms until the next grant is allowed, 0 if now. */
+    long cooldownLeft(String userId, long cooldownMs);
+}
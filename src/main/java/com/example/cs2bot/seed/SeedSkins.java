@@ -1,31 +1,142 @@
 package com.example.cs2bot.seed;
 
 import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.utils.Log;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import org.bson.Document;
 
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Streams {@code seed/skins.json} into the {@code skins} collection.
+ *
+ * Each record is hashed and compared with the {@code _hash} stored on the
+ * existing document; only new or changed skins are written, in unordered
+ * bulk batches.
+ *
+ * Usage: {@code SeedSkins [file] [database]} — defaults to {@code seed/skins.json}
+ * and {@code SEED_DB} or {@code cs2_case_bot} (the database the bot reads).
+ */
 public class SeedSkins {
+
+    private static final String HASH_FIELD = "_hash";
+    private static final int BATCH_SIZE = 1000;
+    private static final int PROGRESS_EVERY = 5000;
+
     public static void main(String[] args) throws Exception {
         String mongoUri = System.getenv("MONGO_URI");
         if (mongoUri == null) {
-            System.err.println("Set MONGO_URI env variable.");
+            Log.error("Seed", "❌ Set MONGO_URI env variable", null);
             System.exit(1);
         }
-        MongoUtil.init(mongoUri, "cs2bot");
+
+        Path file = Path.of(args.length > 0 ? args[0] : "seed/skins.json");
+        String dbName = args.length > 1 ? args[1] : System.getenv("SEED_DB");
+        if (dbName == null || dbName.isBlank()) dbName = "cs2_case_bot";
+
+        MongoUtil.init(mongoUri, dbName);
         MongoCollection<Document> skins = MongoUtil.getDB().getCollection("skins");
-        String json = Files.readString(Path.of("seed/skins.json"));
-        JsonArray arr = JsonParser.parseString(json).getAsJsonArray();
-        for (JsonElement e : arr) {
-            Document d = Document.parse(e.toString());
-            skins.replaceOne(new Document("_id", d.getString("_id")), d, new com.mongodb.client.model.ReplaceOptions().upsert(true));
-            System.out.println("Upserted skin: " + d.getString("_id"));
+
+        long start = System.currentTimeMillis();
+        Map<Object, String> existing = loadHashes(skins);
+        Log.info("Seed", "📚 Existing skins", "count", existing.size(), "db", dbName);
+
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+        BulkWriteOptions unordered = new BulkWriteOptions().ordered(false);
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+
+        long read = 0, written = 0, unchanged = 0, skipped = 0;
+
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             JsonReader reader = new JsonReader(in)) {
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    skipped++;
+                    continue;
+                }
+
+                // Parses just this element — the file is never fully in memory
+                JsonObject obj = JsonParser.parseReader(reader).getAsJsonObject();
+                read++;
+
+                JsonElement idEl = obj.get("_id");
+                if (idEl == null || !idEl.isJsonPrimitive()) {
+                    skipped++;
+                    continue;
+                }
+
+                obj.remove(HASH_FIELD);
+                String json = obj.toString();
+                String hash = HexFormat.of().formatHex(sha.digest(json.getBytes(StandardCharsets.UTF_8)));
+                // Keep the JSON type of _id (5 and "5" are different documents)
+                Document d = Document.parse(json);
+                Object id = d.get("_id");
+
+                if (hash.equals(existing.get(id))) {
+                    unchanged++;
+                } else {
+                    d.append(HASH_FIELD, hash);
+                    batch.add(new ReplaceOneModel<>(Filters.eq("_id", id), d, upsert));
+                    if (batch.size() >= BATCH_SIZE) {
+                        written += flush(skins, batch, unordered);
+                    }
+                }
+
+                if (read % PROGRESS_EVERY == 0) {
+                    Log.info("Seed", "⏳ Progress", "read", read, "written", written, "unchanged", unchanged,
+                            "seconds", (System.currentTimeMillis() - start) / 1000.0);
+                }
+            }
+            reader.endArray();
         }
-        System.out.println("Seed complete.");
+
+        written += flush(skins, batch, unordered);
+
+        Log.info("Seed", "✅ Seed complete", "read", read, "written", written, "unchanged", unchanged,
+                "skipped", skipped, "seconds", (System.currentTimeMillis() - start) / 1000.0);
         System.exit(0);
     }
+
+    /** _id → content hash for every skin already in the collection. */
+    private static Map<Object, String> loadHashes(MongoCollection<Document> skins) {
+        Map<Object, String> hashes = new HashMap<>();
+        for (Document d : skins.find()
+                .projection(Projections.include("_id", HASH_FIELD))
+                .batchSize(5000)) {
+            Object id = d.get("_id");
+            if (id != null) hashes.put(id, d.getString(HASH_FIELD));
+        }
+        return hashes;
+    }
+
+    private static int flush(MongoCollection<Document> skins, List<WriteModel<Document>> batch,
+                             BulkWriteOptions options) {
+        if (batch.isEmpty()) return 0;
+        int n = batch.size();
+        skins.bulkWrite(batch, options);
+        batch.clear();
+        return n;
+    }
 }
@@ -0,0 +1,145 @@
+package com.example.cs2bot.stats;
+
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.utils.Log;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BsonField;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-guild daily statistics, rolled up from {@code inventory}.
+ *
+ * A scheduled aggregation recomputes every UTC day touched since the last
+ * watermark (normally just today), groups its pulls by guild, day and rarity,
+ * and {@code $merge}s the result into {@code guild_stats_daily}, replacing one
+ * small document per guild/day/rarity. Rewriting whole days makes a run
+ * idempotent: if the watermark update after the merge fails, the next run
+ * recomputes the same days and gets the same numbers. Each document carries
+ * the run that wrote it, so rollups a recomputed day no longer produces are
+ * removed. {@code /stats} reads only those rollups, so its cost depends on the
+ * requested window, not on history.
+ *
+ * Runs stop {@link #LAG_MS} in the past so pulls still being written are
+ * picked up by the next run rather than skipped. Items sold before their day
+ * is last recomputed are not counted.
+ */
+public class GuildStats {
+
+    public static final String ROLLUPS = "guild_stats_daily";
+    public static final int MAX_DAYS = 30;
+    private static final String WATERMARKS = "rollup_watermarks";
+    private static final long LAG_MS = 10_000;
+
+    /** Totals for one guild over a range of days. */
+    public record Summary(long opened, double value, Map<String, Long> byRarity, Map<String, Long> byDay) {}
+
+    private static MongoCollection<Document> rollups() {
+        return MongoUtil.getDB().getCollection(ROLLUPS);
+    }
+
+    /** Roll up new pulls every {@code intervalMs}. Needs {@link MongoUtil#init} first. */
+    public static void start(long intervalMs) {
+        rollups().createIndex(Indexes.compoundIndex(Indexes.ascending("guild"), Indexes.ascending("day")));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stats-rollup");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(GuildStats::rollUpSafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void rollUpSafely() {
+        try {
+            rollUp();
+        } catch (Exception e) {
+            Log.error("Stats", "❌ Rollup failed", e);
+        }
+    }
+
+    /** Recompute the days in [watermark, now - lag) into the daily rollups, then advance the watermark. */
+    static void rollUp() {
+        MongoCollection<Document> marks = MongoUtil.getDB().getCollection(WATERMARKS);
+        Document mark = marks.find(Filters.eq("_id", ROLLUPS)).first();
+        Date from = mark != null ? mark.getDate("up_to") : new Date(0);
+        Date to = new Date(System.currentTimeMillis() - LAG_MS);
+        if (!to.after(from)) return;
+
+        // Whole days from the start of the watermark's day; `to` doubles as this run's marker
+        LocalDate firstDay = LocalDate.ofInstant(from.toInstant(), ZoneOffset.UTC);
+        LocalDate lastDay = LocalDate.ofInstant(to.toInstant(), ZoneOffset.UTC);
+        Date dayStart = Date.from(firstDay.atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        long start = System.currentTimeMillis();
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.and(
+                        Filters.gte("opened_at", dayStart),
+                        Filters.lt("opened_at", to),
+                        Filters.exists("guild_id"))),
+                // Rarity lives in the catalog for compact items
+                Aggregates.lookup("skins", "skin_id", "_id", "skin"),
+                Aggregates.group(new Document("guild", "$guild_id")
+                                .append("day", new Document("$dateToString",
+                                        new Document("format", "%Y-%m-%d").append("date", "$opened_at")))
+                                .append("rarity", new Document("$ifNull", List.of(
+                                        new Document("$first", "$skin.rarity"), "$rarity", "Unknown"))),
+                        new BsonField("opened", new Document("$sum", 1)),
+                        new BsonField("value", new Document("$sum",
+                                new Document("$ifNull", List.of("$price", 0))))),
+                Aggregates.set(
+                        new Field<>("guild", "$_id.guild"),
+                        new Field<>("day", "$_id.day"),
+                        new Field<>("rarity", "$_id.rarity"),
+                        new Field<>("run", to)),
+                Aggregates.merge(ROLLUPS, new MergeOptions()
+                        .uniqueIdentifier("_id")
+                        .whenMatched(MergeOptions.WhenMatched.REPLACE)
+                        .whenNotMatched(MergeOptions.WhenNotMatched.INSERT)));
+
+        MongoUtil.getDB().getCollection("inventory").aggregate(pipeline).toCollection();
+        // Rarities/guilds a recomputed day no longer has (everything sold) weren't replaced above
+        rollups().deleteMany(Filters.and(
+                Filters.gte("day", firstDay.toString()),
+                Filters.lte("day", lastDay.toString()),
+                Filters.ne("run", to)));
+        marks.updateOne(Filters.eq("_id", ROLLUPS), Updates.set("up_to", to), new UpdateOptions().upsert(true));
+        Log.debug("Stats", "🧮 Rolled up pulls", "from", dayStart.toInstant(), "to", to.toInstant(),
+                "ms", System.currentTimeMillis() - start);
+    }
+
+    /** Totals for the last {@code days} UTC days (today included), from the rollups only. */
+    public static Summary summary(String guildId, int days) {
+        String since = LocalDate.now(ZoneOffset.UTC).minusDays(days - 1L).toString();
+        long opened = 0;
+        double value = 0;
+        Map<String, Long> byRarity = new TreeMap<>();
+        Map<String, Long> byDay = new TreeMap<>();
+
+        for (Document d : MongoUtil.getReadDB().getCollection(ROLLUPS)
+                .find(Filters.and(Filters.eq("guild", guildId), Filters.gte("day", since)))) {
+            long n = d.get("opened") instanceof Number num ? num.longValue() : 0;
+            opened += n;
+            value += d.get("value") instanceof Number num ? num.doubleValue() : 0;
+            byRarity.merge(d.getString("rarity"), n, Long::sum);
+            byDay.merge(d.getString("day"), n, Long::sum);
+        }
+        return new Summary(opened, value, byRarity, byDay);
+    }
+}
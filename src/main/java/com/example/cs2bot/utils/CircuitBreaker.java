@@ -0,0 +1,69 @@
+package com.example.cs2bot.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimal circuit breaker for an outbound route.
+ *
+ * After {@code failureThreshold} consecutive failures the breaker opens for a
+ * backoff period that doubles on every further trip (with ±20% jitter, capped
+ * at {@code maxOpenMs}). Once the period expires the next request is let
+ * through; a success closes the breaker and resets the backoff.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long baseOpenMs;
+    private final long maxOpenMs;
+
+    private int consecutiveFailures = 0;
+    private int trips = 0;
+    private long openUntil = 0L;
+
+    public CircuitBreaker(String name, int failureThreshold, long baseOpenMs, long maxOpenMs) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenMs = baseOpenMs;
+        this.maxOpenMs = maxOpenMs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (openUntil == 0L) return State.CLOSED;
+        return System.currentTimeMillis() < openUntil ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /** True unless the breaker is open and still cooling down. */
+    public boolean allowRequest() {
+        return getState() != State.OPEN;
+    }
+
+    public synchronized void recordSuccess() {
+        if (openUntil != 0L) {
+            Log.info("CircuitBreaker", "✅ Closed again", "breaker", name);
+        }
+        consecutiveFailures = 0;
+        trips = 0;
+        openUntil = 0L;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        // A failed probe while half-open re-opens immediately
+        if (consecutiveFailures < failureThreshold && openUntil == 0L) return;
+
+        long backoff = Math.min(maxOpenMs, baseOpenMs << Math.min(trips, 20));
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        long openMs = (long) (backoff * jitter);
+
+        trips++;
+        openUntil = System.currentTimeMillis() + openMs;
+        Log.warn("CircuitBreaker", "⛔ Open", "breaker", name, "seconds", openMs / 1000, "trip", trips);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.cs2bot.utils;
+
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.prices.PriceSource;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Background CSFloat repricing for the whole skin catalog.
+ *
+ * Every cycle picks the catalog items with the highest priority, where
+ * priority = staleness of the {@link SteamPriceCache} entry × (1 + recent opens),
+ * and prices them through {@link SteamMarketAPI} at a fixed request rate.
+ * Results are saved in batches. Open counts decay each cycle, so "recent"
+ * means roughly the last hour.
+ */
+public class CsFloatRepricer implements Runnable {
+
+    private static final long CYCLE_MINUTES = 10;
+    private static final long MIN_AGE_SECONDS = 15 * 60;        // never reprice more often than this
+    private static final long MAX_AGE_SECONDS = 24 * 60 * 60;   // SteamPriceCache TTL — fully stale
+    private static final int SAVE_BATCH = 25;
+    private static final double DECAY = 0.85;
+
+    // Normalized name → decayed open count
+    private static final Map<String, Double> popularity = new ConcurrentHashMap<>();
+
+    private final int requestsPerMinute;
+
+    public CsFloatRepricer(int requestsPerMinute) {
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    /** Called from the case-open path; O(1), no I/O. */
+    public static void recordOpen(String name) {
+        if (name == null || name.isBlank()) return;
+        popularity.merge(PriceSource.normalizeName(name), 1.0, Double::sum);
+    }
+
+    @Override
+    public void run() {
+        long spacingMs = 60_000L / Math.max(1, requestsPerMinute);
+        Log.info("Repricer", "🌀 CSFloat repricing started", "perMin", requestsPerMinute);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long cycleStart = System.currentTimeMillis();
+            // One failed cycle (Mongo hiccup, bad response) must not end repricing for good
+            try {
+                List<String> work = pickWork((int) (requestsPerMinute * CYCLE_MINUTES));
+
+                Map<String, Double> pending = new HashMap<>();
+                int priced = 0;
+                for (String name : work) {
+                    long callStart = System.currentTimeMillis();
+
+                    double eur = SteamMarketAPI.getPriceEUR(name);
+                    if (eur > 0) {
+                        pending.put(name, eur);
+                        priced++;
+                    }
+                    if (pending.size() >= SAVE_BATCH) flush(pending);
+
+                    // Stay inside the request budget regardless of how fast CSFloat answered
+                    long elapsed = System.currentTimeMillis() - callStart;
+                    if (elapsed < spacingMs) Thread.sleep(spacingMs - elapsed);
+                }
+                flush(pending);
+                decayPopularity();
+
+                if (!work.isEmpty()) {
+                    Log.info("Repricer", "✅ Repriced items", "priced", priced, "picked", work.size());
+                }
+            } catch (InterruptedException e) {
+                Log.warn("Repricer", "⚠️ Interrupted");
+                return;
+            } catch (Exception e) {
+                Log.error("Repricer", "❌ Cycle failed, retrying next cycle", e);
+            }
+
+            long rest = CYCLE_MINUTES * 60_000 - (System.currentTimeMillis() - cycleStart);
+            try {
+                if (rest > 0) Thread.sleep(rest);
+            } catch (InterruptedException e) {
+                Log.warn("Repricer", "⚠️ Interrupted");
+                return;
+            }
+        }
+    }
+
+    /** Top-{@code limit} names by priority, best first. */
+    private List<String> pickWork(int limit) {
+        Map<String, Long> updated = SteamPriceCache.timestamps();
+        long now = Instant.now().getEpochSecond();
+
+        record Candidate(String name, double priority) {}
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(Candidate::priority));
+
+        Set<String> seen = new HashSet<>();
+        for (String raw : LocalCaches.skinNames()) {
+            String name = PriceSource.normalizeName(raw);
+            if (!seen.add(name)) continue;
+
+            Long ts = updated.get(name);
+            long age = ts == null ? MAX_AGE_SECONDS : now - ts;
+            if (age < MIN_AGE_SECONDS) continue;
+
+            double staleness = Math.min(age, MAX_AGE_SECONDS) / (double) MAX_AGE_SECONDS;
+            double priority = staleness * (1.0 + popularity.getOrDefault(name, 0.0));
+
+            if (heap.size() < limit) {
+                heap.add(new Candidate(name, priority));
+            } else if (!heap.isEmpty() && heap.peek().priority() < priority) {
+                heap.poll();
+                heap.add(new Candidate(name, priority));
+            }
+        }
+
+        List<String> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) result.add(heap.poll().name());
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static void flush(Map<String, Double> pending) {
+        if (pending.isEmpty()) return;
+        try {
+            SteamPriceCache.putAll(pending);
+        } catch (Exception e) {
+            Log.warn("Repricer", "⚠️ Batch save failed", "error", e.getMessage());
+        }
+        pending.clear();
+    }
+
+    private static void decayPopularity() {
+        popularity.replaceAll((k, v) -> v * DECAY);
+        popularity.values().removeIf(v -> v < 0.05);
+    }
+}
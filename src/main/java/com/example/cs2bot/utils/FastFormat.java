@@ -0,0 +1,38 @@
+package com.example.cs2bot.utils;
+
+/**
+ * Fixed-point number formatting straight into a {@link StringBuilder},
+ * for hot paths where {@code String.format} (a Formatter, a regex parse and
+ * several temporary strings per call) is too heavy. Output matches
+ * {@code %.Nf} with HALF_UP rounding for the magnitudes we show (prices,
+ * floats).
+ */
+public final class FastFormat {
+
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private FastFormat() {}
+
+    /** Appends {@code value} with exactly {@code decimals} (0–6) fraction digits. */
+    public static StringBuilder fixed(StringBuilder sb, double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e12) {
+            return sb.append(String.format("%." + decimals + "f", value));
+        }
+        long scale = POW10[decimals];
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) sb.append('-');
+
+        sb.append(scaled / scale);
+        if (decimals > 0) {
+            sb.append('.');
+            long frac = scaled % scale;
+            for (long p = scale / 10; p > frac && p > 1; p /= 10) sb.append('0');
+            sb.append(frac);
+        }
+        return sb;
+    }
+
+    public static String fixed(double value, int decimals) {
+        return fixed(new StringBuilder(16), value, decimals).toString();
+    }
+}
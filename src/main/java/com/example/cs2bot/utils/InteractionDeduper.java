@@ -0,0 +1,81 @@
+package com.example.cs2bot.utils;
+
+import com.example.cs2bot.config.BotConfig;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops button interactions we have already seen, before any DB work.
+ *
+ * Two checks, each backed by an {@link ExpiringSet} of 64-bit keys:
+ * <ul>
+ *   <li>the interaction ID, for events JDA redelivers after a reconnect
+ *       ({@code DEDUPE_INTERACTION_TTL_MS}, default 5 min);</li>
+ *   <li>user + message + component, for double clicks on the same button
+ *       ({@code DEDUPE_CLICK_WINDOW_MS}, default 1500 ms).</li>
+ * </ul>
+ * This only covers one process and its lifetime; the unique
+ * {@code interaction_id} index on inventory is the backstop.
+ */
+public class InteractionDeduper {
+
+    public enum Verdict { NEW, REDELIVERED, DOUBLE_CLICK }
+
+    private final ExpiringSet interactions;
+    private final ExpiringSet clicks;
+
+    public InteractionDeduper(BotConfig config) {
+        this.interactions = new ExpiringSet(config.getLong("DEDUPE_INTERACTION_TTL_MS", 5 * 60_000L));
+        this.clicks = new ExpiringSet(config.getLong("DEDUPE_CLICK_WINDOW_MS", 1_500));
+    }
+
+    public Verdict check(long interactionId, long userId, long messageId, String componentId) {
+        if (!interactions.add(interactionId)) return Verdict.REDELIVERED;
+        long click = mix(mix(userId) ^ messageId) ^ componentId.hashCode();
+        if (!clicks.add(mix(click))) return Verdict.DOUBLE_CLICK;
+        return Verdict.NEW;
+    }
+
+    /** SplitMix64 finalizer: spreads IDs that share their high (timestamp) bits. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A set whose entries live between {@code ttl} and {@code 2 * ttl}.
+     *
+     * Two generations are kept; once {@code ttl} has passed the older one is
+     * dropped wholesale and a fresh one started. No per-entry timestamps and
+     * no sweeping, so memory is roughly two windows' worth of longs.
+     */
+    static final class ExpiringSet {
+        private final long ttlMs;
+        private volatile Set<Long> current = ConcurrentHashMap.newKeySet();
+        private volatile Set<Long> previous = ConcurrentHashMap.newKeySet();
+        private volatile long rotatedAt = System.currentTimeMillis();
+
+        ExpiringSet(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        /** Returns false if {@code key} was added within the window. */
+        boolean add(long key) {
+            if (ttlMs <= 0) return true;
+            long now = System.currentTimeMillis();
+            if (now - rotatedAt >= ttlMs) rotate(now);
+            if (previous.contains(key)) return false;
+            return current.add(key);
+        }
+
+        private synchronized void rotate(long now) {
+            if (now - rotatedAt < ttlMs) return;
+            // Idle longer than two windows: everything has expired
+            previous = now - rotatedAt >= 2 * ttlMs ? ConcurrentHashMap.newKeySet() : current;
+            current = ConcurrentHashMap.newKeySet();
+            rotatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.cs2bot.utils;
+
+import com.example.cs2bot.config.BotConfig;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token buckets for button clicks, keyed by user and by guild.
+ *
+ * Buckets live in lock-striped maps so clicks from different users almost
+ * never touch the same lock. Limits are per button ID and can be overridden
+ * in .env, e.g. {@code RATE_LIMIT_USER_OPEN_PRISMA2=3/20} (burst 3, 20 per minute)
+ * or {@code RATE_LIMIT_GUILD_OPEN_PRISMA2=50/600}.
+ */
+public class InteractionRateLimiter {
+
+    /** Bucket size and refill speed. */
+    public record Limit(int capacity, double perMinute) {
+        boolean isUnlimited() {
+            return capacity <= 0 || perMinute <= 0;
+        }
+
+        double refillPerMs() {
+            return perMinute / 60_000.0;
+        }
+
+        /** Time for an empty bucket to fill up again. */
+        long fullRefillMs() {
+            return (long) Math.ceil(capacity / refillPerMs());
+        }
+
+        static Limit parse(String value, Limit fallback) {
+            if (value == null || value.isBlank()) return fallback;
+            try {
+                String[] parts = value.trim().split("/");
+                return new Limit(Integer.parseInt(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+            } catch (Exception e) {
+                Log.warn("RateLimiter", "⚠️ Invalid limit, using default", "value", value, "default", fallback);
+                return fallback;
+            }
+        }
+    }
+
+    private static final Limit DEFAULT_USER_OPEN = new Limit(5, 30);
+    private static final Limit DEFAULT_GUILD_OPEN = new Limit(40, 600);
+    private static final Limit UNLIMITED = new Limit(0, 0);
+
+    private static final int STRIPES = 64;
+    private static final int PURGE_THRESHOLD = 512;
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+        long idleMs;
+    }
+
+    private static final class Stripe {
+        final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<String, Limit> userLimits = new ConcurrentHashMap<>();
+    private final Map<String, Limit> guildLimits = new ConcurrentHashMap<>();
+    private final BotConfig config;
+
+    public InteractionRateLimiter(BotConfig config) {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+        this.config = config;
+    }
+
+    /**
+     * Take one token from the user's and the guild's bucket for this button.
+     *
+     * @return 0 if allowed, otherwise milliseconds until the next click would pass
+     */
+    public long tryAcquire(String buttonId, String userId, String guildId) {
+        Limit userLimit = userLimit(buttonId);
+        Limit guildLimit = guildId != null ? guildLimit(buttonId) : UNLIMITED;
+        if (userLimit.isUnlimited() && guildLimit.isUnlimited()) return 0;
+
+        long now = System.currentTimeMillis();
+        String userKey = buttonId + ":u:" + userId;
+        if (!userLimit.isUnlimited()) {
+            long wait = take(userKey, userLimit, now);
+            if (wait > 0) return wait;
+        }
+
+        if (!guildLimit.isUnlimited()) {
+            long wait = take(buttonId + ":g:" + guildId, guildLimit, now);
+            if (wait > 0) {
+                // Guild is saturated — don't charge the user for a click we reject
+                if (!userLimit.isUnlimited()) refund(userKey, userLimit);
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private long take(String key, Limit limit, long now) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            Bucket b = stripe.buckets.get(key);
+            if (b == null) {
+                if (stripe.buckets.size() >= PURGE_THRESHOLD) purge(stripe, now);
+                b = new Bucket();
+                b.tokens = limit.capacity();
+                b.lastRefill = now;
+                b.idleMs = limit.fullRefillMs();
+                stripe.buckets.put(key, b);
+            } else {
+                b.tokens = Math.min(limit.capacity(), b.tokens + (now - b.lastRefill) * limit.refillPerMs());
+                b.lastRefill = now;
+            }
+
+            if (b.tokens >= 1.0) {
+                b.tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1.0 - b.tokens) / limit.refillPerMs()));
+        }
+    }
+
+    private void refund(String key, Limit limit) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            Bucket b = stripe.buckets.get(key);
+            if (b != null) b.tokens = Math.min(limit.capacity(), b.tokens + 1.0);
+        }
+    }
+
+    /** Drop buckets that would be full again anyway — they carry no state. */
+    private static void purge(Stripe stripe, long now) {
+        Iterator<Bucket> it = stripe.buckets.values().iterator();
+        while (it.hasNext()) {
+            Bucket b = it.next();
+            if (now - b.lastRefill >= b.idleMs) it.remove();
+        }
+    }
+
+    // Only case-open buttons are limited unless .env says otherwise
+    private Limit userLimit(String buttonId) {
+        return userLimits.computeIfAbsent(buttonId, id -> Limit.parse(env("RATE_LIMIT_USER_", id),
+                id.startsWith("open_") ? DEFAULT_USER_OPEN : UNLIMITED));
+    }
+
+    private Limit guildLimit(String buttonId) {
+        return guildLimits.computeIfAbsent(buttonId, id -> Limit.parse(env("RATE_LIMIT_GUILD_", id),
+                id.startsWith("open_") ? DEFAULT_GUILD_OPEN : UNLIMITED));
+    }
+
+    private String env(String prefix, String buttonId) {
+        return config.get(prefix + buttonId.toUpperCase());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.cs2bot.utils;
+
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.MongoUtil;
+import com.google.gson.stream.JsonWriter;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a user's whole inventory to a gzipped CSV or JSON file.
+ *
+ * Items are streamed from a projected cursor and resolved against the catalog
+ * one cursor batch at a time, so memory stays flat however large the
+ * inventory is. Exports run on a small dedicated pool with a short queue;
+ * when it is full new exports are refused instead of piling up behind the
+ * interactive threads.
+ */
+public class InventoryExporter {
+
+    public enum Format { CSV, JSON }
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(8), r -> {
+        Thread t = new Thread(r, "inventory-export");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    }, new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Queues an export. {@code onDone} receives the gzipped file (caller deletes
+     * it) or null on failure. Throws {@link java.util.concurrent.RejectedExecutionException}
+     * when too many exports are already pending.
+     */
+    public static Future<?> submit(String userId, Format format, Consumer<Path> onDone) {
+        return POOL.submit(() -> {
+            Path file = null;
+            try {
+                file = Files.createTempFile("inventory-" + userId + "-", format == Format.CSV ? ".csv.gz" : ".json.gz");
+                long rows = export(userId, format, file);
+                Log.info("Export", "📤 Inventory exported", "user", userId, "rows", rows, "bytes", Files.size(file));
+                onDone.accept(file);
+            } catch (Exception e) {
+                Log.error("Export", "❌ Export failed", e, "user", userId);
+                if (file != null) {
+                    try { Files.deleteIfExists(file); } catch (IOException ignored) {}
+                }
+                onDone.accept(null);
+            }
+        });
+    }
+
+    private static long export(String userId, Format format, Path file) throws IOException {
+        long rows = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8));
+             MongoCursor<Document> cursor = MongoUtil.getReadDB().getCollection("inventory")
+                     .find(Filters.eq("user_id", userId))
+                     .projection(Projections.exclude("_id", "user_id", "image", "case"))
+                     .sort(Sorts.descending("opened_at"))
+                     .batchSize(BATCH_SIZE)
+                     .iterator()) {
+
+            JsonWriter json = null;
+            if (format == Format.CSV) {
+                out.write("name,wear,rarity,stattrak,float,price,value,opened_at\n");
+            } else {
+                json = new JsonWriter(out);
+                json.beginArray();
+            }
+
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == BATCH_SIZE || !cursor.hasNext()) {
+                    for (Document item : InventoryRecords.resolveAll(batch)) {
+                        if (json != null) writeJson(json, item);
+                        else writeCsv(out, item);
+                        rows++;
+                    }
+                    batch.clear();
+                }
+            }
+
+            if (json != null) {
+                json.endArray();
+                json.flush();
+            }
+        }
+        return rows;
+    }
+
+    private static void writeCsv(Writer out, Document item) throws IOException {
+        out.write(csv(item.getString("name")));
+        out.write(',');
+        out.write(csv(item.getString("wear")));
+        out.write(',');
+        out.write(csv(item.getString("rarity")));
+        out.write(',');
+        out.write(String.valueOf(item.getBoolean("stattrak", false)));
+        out.write(',');
+        out.write(String.format("%.6f", number(item, "float")));
+        out.write(',');
+        out.write(String.format("%.2f", number(item, "price")));
+        out.write(',');
+        out.write(String.format("%.2f", InventoryRecords.currentValue(item)));
+        out.write(',');
+        Date opened = item.getDate("opened_at");
+        out.write(opened != null ? opened.toInstant().toString() : "");
+        out.write('\n');
+    }
+
+    private static void writeJson(JsonWriter json, Document item) throws IOException {
+        Date opened = item.getDate("opened_at");
+        json.beginObject()
+                .name("name").value(item.getString("name"))
+                .name("wear").value(item.getString("wear"))
+                .name("rarity").value(item.getString("rarity"))
+                .name("stattrak").value(item.getBoolean("stattrak", false))
+                .name("float").value(number(item, "float"))
+                .name("price").value(number(item, "price"))
+                .name("value").value(InventoryRecords.currentValue(item))
+                .name("opened_at").value(opened != null ? opened.toInstant().toString() : null)
+                .endObject();
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static double number(Document item, String key) {
+        return item.get(key) instanceof Number n ? n.doubleValue() : 0.0;
+    }
+}
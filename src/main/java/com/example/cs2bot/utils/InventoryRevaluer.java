@@ -0,0 +1,133 @@
+package com.example.cs2bot.utils;
+
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.LocalCaches;
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.prices.PriceSource;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Brings the {@code value} stored on inventory items up to date after a
+ * price refresh. {@code price} stays the price at open time.
+ *
+ * {@link PriceUpdater} hands over only the names whose price changed. Those
+ * are mapped to catalog skin IDs and applied with one {@code updateMany} per
+ * name on the {@code skin_id} index, in unordered bulk batches with a pause
+ * between them. Changes arriving while a run is in progress are merged and
+ * picked up by the next run, so there is never more than one job at a time.
+ */
+public class InventoryRevaluer {
+
+    private static final int BATCH_SIZE = 200;
+    private static final long PAUSE_MS = 100;
+    private static final String STATTRAK = "StatTrak™ ";
+
+    private static final Map<String, Double> pending = new ConcurrentHashMap<>();
+    private static final AtomicBoolean scheduled = new AtomicBoolean();
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "inventory-revaluer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /** Queue changed prices (normalized market name → EUR). Returns immediately. */
+    public static void submit(Map<String, Double> changed) {
+        if (changed.isEmpty()) return;
+        pending.putAll(changed);
+        if (scheduled.compareAndSet(false, true)) worker.execute(InventoryRevaluer::drain);
+    }
+
+    private static void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                Map<String, Double> batch = new HashMap<>(pending);
+                batch.forEach(pending::remove);
+                revalue(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.error("Revaluer", "❌ Revaluation failed", e);
+        } finally {
+            scheduled.set(false);
+            // Something may have arrived after the last isEmpty() check
+            if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) worker.execute(InventoryRevaluer::drain);
+        }
+    }
+
+    private static void revalue(Map<String, Double> changed) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Map<String, List<Object>> skinIds = catalogIndex();
+        MongoCollection<Document> inventory = MongoUtil.getDB().getCollection("inventory");
+        BulkWriteOptions unordered = new BulkWriteOptions().ordered(false);
+        Date now = new Date();
+
+        List<WriteModel<Document>> ops = new ArrayList<>(BATCH_SIZE);
+        long matched = 0, modified = 0;
+
+        for (Map.Entry<String, Double> e : changed.entrySet()) {
+            String name = e.getKey();
+            boolean statTrak = name.contains(STATTRAK);
+            List<Object> ids = skinIds.get(statTrak ? name.replace(STATTRAK, "") : name);
+            if (ids == null) continue;
+
+            // StatTrak items follow the base price only while no StatTrak listing is known
+            Bson variant = statTrak ? Filters.eq("stattrak", true)
+                    : PriceUpdater.priceOf(InventoryRecords.statTrakName(name)) != null ? Filters.ne("stattrak", true)
+                    : new Document();
+
+            ops.add(new UpdateManyModel<>(
+                    Filters.and(Filters.in("skin_id", ids), variant),
+                    Updates.combine(Updates.set("value", e.getValue()), Updates.set("revalued_at", now))));
+
+            if (ops.size() >= BATCH_SIZE) {
+                var result = inventory.bulkWrite(ops, unordered);
+                matched += result.getMatchedCount();
+                modified += result.getModifiedCount();
+                ops.clear();
+                Thread.sleep(PAUSE_MS);
+            }
+        }
+        if (!ops.isEmpty()) {
+            var result = inventory.bulkWrite(ops, unordered);
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+        }
+
+        Log.info("Revaluer", "💱 Inventory revalued", "names", changed.size(), "matched", matched,
+                "modified", modified, "ms", System.currentTimeMillis() - start);
+    }
+
+    /** Normalized skin name → catalog IDs (one per wear). */
+    private static Map<String, List<Object>> catalogIndex() {
+        Map<String, List<Object>> index = new HashMap<>();
+        Iterable<Document> skins = LocalCaches.SKINS.isLive()
+                ? LocalCaches.SKINS.values()
+                : MongoUtil.getDB().getCollection("skins").find().projection(Projections.include("name"));
+        for (Document skin : skins) {
+            String name = skin.getString("name");
+            if (name == null) continue;
+            index.computeIfAbsent(PriceSource.normalizeName(name), k -> new ArrayList<>()).add(skin.get("_id"));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.cs2bot.utils;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous logger for hot paths.
+ *
+ * Callers only drop an event into a fixed-size ring buffer; a single daemon
+ * thread formats and writes it. When the buffer is full, events are dropped
+ * (and counted) instead of blocking the caller. Output is one line per event:
+ * {@code time LEVEL [Tag] message key=value ...}.
+ *
+ * The writer thread is started explicitly with {@link #start()}; until then
+ * (and in short-lived tools that never call it) events are written by the
+ * calling thread.
+ *
+ * Minimum level is set from {@code LOG_LEVEL} at startup (default INFO). High-frequency
+ * call sites can use {@link #sample(String, int)} to log only every Nth event.
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private record Event(long time, Level level, String tag, String msg, Object[] kv, Throwable error) {}
+
+    private static final int CAPACITY = 8192; // power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private static final AtomicReferenceArray<Event> ring = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong();   // next slot to claim
+    private static final AtomicLong head = new AtomicLong();   // next slot to drain
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final Map<String, AtomicLong> siteCounters = new ConcurrentHashMap<>();
+
+    private static final PrintWriter out = new PrintWriter(new OutputStreamWriter(
+            new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), false);
+    private static final PrintWriter err = new PrintWriter(new OutputStreamWriter(
+            new FileOutputStream(FileDescriptor.err), StandardCharsets.UTF_8), false);
+    private static final StringBuilder line = new StringBuilder(256);
+
+    private static volatile Level minLevel = Level.INFO;
+    private static volatile Thread writer;
+
+    private Log() {}
+
+    /** Hand writing off to the background writer thread. Call once at startup. */
+    public static synchronized void start() {
+        if (writer != null) return;
+        Thread t = new Thread(Log::drainLoop, "log-writer");
+        t.setDaemon(true);
+        t.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush));
+        writer = t;
+    }
+
+    /** Set the minimum level by name; unknown names keep the current level. */
+    public static void setLevel(String level) {
+        if (level == null || level.isBlank()) return;
+        try {
+            minLevel = Level.valueOf(level.trim().toUpperCase());
+        } catch (IllegalArgumentException ignored) {}
+    }
+
+    public static boolean enabled(Level level) {
+        return level.ordinal() >= minLevel.ordinal();
+    }
+
+    public static void debug(String tag, String msg, Object... kv) {
+        log(Level.DEBUG, tag, msg, null, kv);
+    }
+
+    public static void info(String tag, String msg, Object... kv) {
+        log(Level.INFO, tag, msg, null, kv);
+    }
+
+    public static void warn(String tag, String msg, Object... kv) {
+        log(Level.WARN, tag, msg, null, kv);
+    }
+
+    public static void error(String tag, String msg, Throwable error, Object... kv) {
+        log(Level.ERROR, tag, msg, error, kv);
+    }
+
+    /**
+     * True for the 1st, (n+1)th, (2n+1)th ... call from {@code site}.
+     * Use as {@code if (Log.sample("cache.hit", 100)) Log.debug(...)}.
+     */
+    public static boolean sample(String site, int n) {
+        if (n <= 1) return true;
+        return siteCounters.computeIfAbsent(site, s -> new AtomicLong()).getAndIncrement() % n == 0;
+    }
+
+    private static void log(Level level, String tag, String msg, Throwable error, Object[] kv) {
+        if (!enabled(level)) return;
+        Event event = new Event(System.currentTimeMillis(), level, tag, msg, kv, error);
+
+        // Claim a slot; never wait for the writer
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head.get() >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+
+        ring.set((int) (seq & MASK), event);
+        Thread w = writer;
+        if (w == null) {
+            drain(); // not started: write inline
+        } else if (seq - head.get() == CAPACITY / 2) {
+            // Writer polls on its own; only nudge it when the buffer is filling up
+            LockSupport.unpark(w);
+        }
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            if (!drain()) LockSupport.parkNanos(50_000_000L);
+        }
+    }
+
+    /** Write out everything published so far, one flush per batch. @return true if anything was written */
+    private static synchronized boolean drain() {
+        StringBuilder sb = line;
+        boolean wrote = false;
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            err.println(Instant.now() + " WARN [Log] dropped " + lost + " events (buffer full)");
+            wrote = true;
+        }
+
+        int spins = 0;
+        while (head.get() < tail.get()) {
+            int idx = (int) (head.get() & MASK);
+            Event e = ring.get(idx);
+            if (e == null) {
+                // Producer claimed the slot but hasn't published yet — retry next round
+                if (++spins > 1000) break;
+                Thread.onSpinWait();
+                continue;
+            }
+            ring.set(idx, null);
+            head.incrementAndGet();
+
+            sb.setLength(0);
+            format(e, sb);
+            PrintWriter target = e.level().ordinal() >= Level.WARN.ordinal() ? err : out;
+            target.println(sb);
+            if (e.error() != null) e.error().printStackTrace(target);
+            wrote = true;
+        }
+
+        if (wrote) {
+            out.flush();
+            err.flush();
+        }
+        return wrote;
+    }
+
+    private static void format(Event e, StringBuilder sb) {
+        sb.append(Instant.ofEpochMilli(e.time())).append(' ')
+                .append(e.level()).append(" [").append(e.tag()).append("] ")
+                .append(e.msg());
+        Object[] kv = e.kv();
+        for (int i = 0; i + 1 < kv.length; i += 2) {
+            sb.append(' ').append(kv[i]).append('=');
+            Object v = kv[i + 1];
+            if (v instanceof Double d) {
+                sb.append(Math.round(d * 100) / 100.0);
+            } else {
+                String s = String.valueOf(v);
+                if (s.indexOf(' ') >= 0) sb.append('"').append(s).append('"');
+                else sb.append(s);
+            }
+        }
+        if (e.error() != null && e.error().getMessage() != null) {
+            sb.append(" error=\"").append(e.error().getMessage()).append('"');
+        }
+    }
+
+    /** Write everything still buffered (used on shutdown). */
+    public static void flush() {
+        drain();
+    }
+}
@@ -1,81 +1,74 @@
 package com.example.cs2bot.utils;
 
-import com.google.gson.*;
-import com.google.gson.stream.JsonReader;
-import io.github.cdimascio.dotenv.Dotenv;
+import com.example.cs2bot.alerts.PriceAlerts;
+import com.example.cs2bot.config.BotConfig;
+import com.example.cs2bot.db.InventoryRecords;
+import com.example.cs2bot.db.MongoUtil;
+import com.example.cs2bot.prices.PriceAggregator;
+import com.example.cs2bot.prices.PriceSource;
 import com.mongodb.client.*;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.ResponseBody;
-import okhttp3.brotli.BrotliInterceptor;
 import org.bson.Document;
-import org.brotli.dec.BrotliInputStream;
 
-import java.net.ProxySelector;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.zip.GZIPInputStream;
-import java.nio.charset.StandardCharsets;
 
 public class PriceUpdater implements Runnable {
 
-    private static final String SKINPORT_DIRECT_URL =
-            "https://api.skinport.com/v1/items?app_id=730&currency=EUR&tradable=1";
-
-    private static final String SKINPORT_PROXY_URL =
-            "https://api.allorigins.win/raw?url=https://api.skinport.com/v1/items?app_id=730&currency=EUR&tradable=1";
-
     private static MongoCollection<Document> priceCollection;
 
-    private static final Map<String, Double> skinportMap = new ConcurrentHashMap<>();
-    private static volatile long skinportLastLoad = 0L;
-    private static final long SKINPORT_TTL_MS = 10 * 60 * 1000; // 10 min cache
+    private static final Map<String, Double> priceMap = new ConcurrentHashMap<>();
+    private static volatile long priceLastLoad = 0L;
+    private static final long PRICE_TTL_MS = 10 * 60 * 1000; // 10 min cache
 
-    private static final OkHttpClient httpClient;
+    private static PriceAggregator aggregator;
 
-    static {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .proxySelector(ProxySelector.getDefault())
-                .connectTimeout(java.time.Duration.ofSeconds(60))
-                .readTimeout(java.time.Duration.ofSeconds(120))
-                .retryOnConnectionFailure(true);
+    /** Wire up sources and storage. Needs {@link MongoUtil#init} first. */
+    public static void init(BotConfig config) {
+        aggregator = PriceAggregator.fromConfig(config);
+        priceCollection = MongoUtil.getDB().getCollection("prices");
+    }
 
-        try {
-            builder.addInterceptor(BrotliInterceptor.INSTANCE);
-            System.out.println("🌐 BrotliInterceptor loaded: true");
-        } catch (Throwable t) {
-            System.err.println("[PriceUpdater] ⚠️ Failed to load BrotliInterceptor: " + t.getMessage());
+    /**
+     * Prime the in-memory table from the last persisted prices so a restart
+     * doesn't have to wait for (or repeat) a full remote refresh.
+     */
+    public static void loadSnapshot() {
+        if (priceCollection == null) return;
+        Map<String, Double> snapshot = new HashMap<>();
+        long newest = 0L;
+
+        for (Document d : priceCollection.find().projection(Projections.include("price", "updated")).batchSize(5000)) {
+            Object id = d.get("_id");
+            Object price = d.get("price");
+            if (id instanceof String name && price instanceof Number n) snapshot.put(name, n.doubleValue());
+            Date updated = d.getDate("updated");
+            if (updated != null) newest = Math.max(newest, updated.getTime());
         }
 
-        httpClient = builder.build();
-
-        try {
-            Dotenv dotenv = Dotenv.configure()
-                    .directory(System.getProperty("user.dir"))
-                    .ignoreIfMissing()
-                    .ignoreIfMalformed()
-                    .load();
-
-            String mongoUri = dotenv.get("MONGO_URI");
-            if (mongoUri != null && !mongoUri.isBlank()) {
-                MongoClient client = MongoClients.create(mongoUri);
-                MongoDatabase db = client.getDatabase("cs2_case_bot");
-                priceCollection = db.getCollection("prices");
-                System.out.println("🗄️ Connected to MongoDB for price cache");
-            }
+        if (!snapshot.isEmpty()) {
+            priceMap.putAll(snapshot);
+            priceLastLoad = newest;
+        }
+        Log.info("PriceUpdater", "📥 Loaded price snapshot", "count", snapshot.size());
+    }
 
-            System.out.println("🌐 System proxy support enabled (matches Chrome)");
+    /** Current EUR price from the in-memory table, or null if the item isn't priced. */
+    public static Double priceOf(String name) {
+        return priceMap.get(PriceSource.normalizeName(name));
+    }
 
-        } catch (Exception e) {
-            System.err.println("[PriceUpdater] ⚠️ Could not initialize MongoDB or .env: " + e.getMessage());
-        }
+    /** Like {@link #priceOf} but tries the StatTrak listing first and a ★-less name last. */
+    public static Double priceOf(String name, boolean statTrak) {
+        String normalized = PriceSource.normalizeName(name);
+        Double price = statTrak ? priceMap.get(InventoryRecords.statTrakName(normalized)) : null;
+        if (price == null) price = priceMap.get(normalized);
+        if (price == null) price = priceMap.get(normalized.replace("★", "").trim());
+        return price;
     }
 
     private final int refreshInterval;
@@ -95,172 +88,58 @@ public class PriceUpdater implements Runnable {
     @Override
     public void run() {
         try {
-            System.out.printf("[Thread-%d] 🌀 Starting price updater (interval=%d ms)%n",
-                    threadIndex, refreshInterval);
+            Log.info("PriceUpdater", "🌀 Starting price updater", "thread", threadIndex, "intervalMs", refreshInterval);
 
             while (true) {
-                loadSkinportIfStale();
+                loadPricesIfStale();
                 Thread.sleep(refreshInterval);
             }
 
         } catch (InterruptedException e) {
-            System.err.printf("[Thread-%d] ⚠️ Interrupted%n", threadIndex);
+            Log.warn("PriceUpdater", "⚠️ Interrupted", "thread", threadIndex);
         } catch (Exception e) {
-            System.err.printf("[Thread-%d] ❌ Unexpected error: %s%n", threadIndex, e.getMessage());
+            Log.error("PriceUpdater", "❌ Unexpected error", e, "thread", threadIndex);
         }
     }
 
-    private static void loadSkinportIfStale() {
+    private static void loadPricesIfStale() {
         long now = Instant.now().toEpochMilli();
-        if (now - skinportLastLoad < SKINPORT_TTL_MS && !skinportMap.isEmpty()) return;
-
-        boolean usedProxy = false;
+        if (now - priceLastLoad < PRICE_TTL_MS && !priceMap.isEmpty()) return;
 
         try {
-            Request request = new Request.Builder()
-                    .url(SKINPORT_DIRECT_URL)
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.0.0 Safari/537.36")
-                    .header("Accept", "application/json, text/plain, */*")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Origin", "https://skinport.com")
-                    .header("Referer", "https://skinport.com/")
-                    .header("Connection", "keep-alive")
-                    .header("Cache-Control", "no-cache")
-                    .build();
-
-            Response response = httpClient.newCall(request).execute();
-            int code = response.code();
-
-            if (code == 429 || code == 406 || code == 403) {
-                System.err.println("[PriceUpdater] ⚠️ Skinport direct access blocked — using proxy...");
-                usedProxy = true;
-                response.close();
-
-                request = new Request.Builder()
-                        .url(SKINPORT_PROXY_URL)
-                        .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.0.0 Safari/537.36")
-                        .header("Accept", "application/json, text/plain, */*")
-                        .header("Accept-Encoding", "gzip, deflate, br")
-                        .build();
-
-                response = httpClient.newCall(request).execute();
-            }
-
-            ResponseBody body = response.body();
-            if (body == null) {
-                System.err.println("[PriceUpdater] ⚠️ Empty Skinport response");
-                response.close();
-                return;
-            }
-
-            // 🧩 Universal decompression and cleanup
-            byte[] rawBytes = body.bytes();
-            String jsonString = new String(rawBytes, StandardCharsets.UTF_8).trim();
-
-            // Detect binary data and try Brotli/GZIP manually
-            if (!jsonString.startsWith("[") && !jsonString.startsWith("{") &&
-                    jsonString.chars().filter(c -> c < 32).count() > 10) {
-                try {
-                    String encoding = response.header("Content-Encoding", "").toLowerCase();
-
-                    if (encoding.contains("br") || jsonString.contains(" ")) {
-                        ByteArrayInputStream in = new ByteArrayInputStream(rawBytes);
-                        ByteArrayOutputStream out = new ByteArrayOutputStream();
-                        BrotliInputStream brotli = new BrotliInputStream(in);
-                        brotli.transferTo(out);
-                        brotli.close();
-                        jsonString = out.toString(StandardCharsets.UTF_8);
-                        System.out.println("[PriceUpdater] ✅ Brotli decompressed manually");
-                    } else if (encoding.contains("gzip")) {
-                        ByteArrayInputStream in = new ByteArrayInputStream(rawBytes);
-                        ByteArrayOutputStream out = new ByteArrayOutputStream();
-                        GZIPInputStream gzip = new GZIPInputStream(in);
-                        gzip.transferTo(out);
-                        gzip.close();
-                        jsonString = out.toString(StandardCharsets.UTF_8);
-                        System.out.println("[PriceUpdater] ✅ GZIP decompressed manually");
-                    }
-                } catch (Exception ex) {
-                    System.err.println("[PriceUpdater] ⚠️ Manual decompression failed: " + ex.getMessage());
-                }
-            }
-
-            // Extract proxy wrapper
-            if (jsonString.startsWith("{") && jsonString.contains("\"contents\"")) {
-                try {
-                    JsonObject wrapper = JsonParser.parseString(jsonString).getAsJsonObject();
-                    if (wrapper.has("contents")) {
-                        jsonString = wrapper.get("contents").getAsString();
-                        System.out.println("[PriceUpdater] 🪞 Extracted AllOrigins 'contents' wrapper");
-                    }
-                } catch (Exception ignored) {}
-            }
-
-            // Trim junk before JSON array
-            if (!jsonString.startsWith("[") && jsonString.contains("[")) {
-                jsonString = jsonString.substring(jsonString.indexOf('['));
-            }
-            jsonString = jsonString.trim();
+            Map<String, Double> temp = aggregator.fetchAll();
+            if (temp.isEmpty()) return;
 
-            // ✅ Parse JSON safely
-            JsonReader reader = new JsonReader(new java.io.StringReader(jsonString));
-            reader.setLenient(true);
-            JsonElement parsed;
-
-            try {
-                parsed = JsonParser.parseReader(reader);
-            } catch (Exception parseEx) {
-                System.err.println("[PriceUpdater] ⚠️ JSON parse issue: " + parseEx.getMessage());
-                System.err.println("Snippet: " + jsonString.substring(0, Math.min(200, jsonString.length())));
-                response.close();
-                return;
-            }
-
-            if (!parsed.isJsonArray()) {
-                System.err.println("[PriceUpdater] ⚠️ Unexpected response (not JSON array): " +
-                        jsonString.substring(0, Math.min(120, jsonString.length())));
-                response.close();
-                return;
-            }
-
-            JsonArray arr = parsed.getAsJsonArray();
-            Map<String, Double> temp = new HashMap<>();
             Map<String, Double> changed = new HashMap<>();
-
-            for (JsonElement el : arr) {
-                JsonObject o = el.getAsJsonObject();
-                if (!o.has("market_hash_name")) continue;
-
-                String name = o.get("market_hash_name").getAsString();
-                String n = normalizeName(name);
-                double price = safeDouble(o, "lowest_price");
-                if (price <= 0) price = safeDouble(o, "min_price");
-                if (price <= 0) continue;
-
-                temp.put(n, price);
-                if (hasPriceChanged(n, price)) {
-                    changed.put(n, price);
+            for (Map.Entry<String, Double> e : temp.entrySet()) {
+                if (hasPriceChanged(e.getKey(), e.getValue())) {
+                    changed.put(e.getKey(), e.getValue());
                 }
             }
 
             if (!changed.isEmpty()) {
                 batchUpdatePrices(changed);
-                System.out.printf("[Mongo] 💾 Updated %d changed prices%n", changed.size());
+                Log.info("PriceUpdater", "💾 Updated changed prices", "count", changed.size());
             }
 
-            if (!temp.isEmpty()) {
-                skinportMap.clear();
-                skinportMap.putAll(temp);
-                skinportLastLoad = now;
-                System.out.printf("[PriceUpdater] ✅ Loaded %d Skinport prices (%s)%n",
-                        temp.size(), usedProxy ? "via proxy" : "direct");
+            Map<String, Double> previous = new HashMap<>();
+            for (String name : changed.keySet()) {
+                Double old = priceMap.get(name);
+                if (old != null) previous.put(name, old);
             }
 
-            response.close();
+            priceMap.clear();
+            priceMap.putAll(temp);
+            priceLastLoad = now;
+
+            // 🔔 Only the changed items are matched against alert thresholds
+            PriceAlerts.onPricesChanged(previous, changed);
+
+            // 💱 Re-price only the inventory items whose price just moved
+            InventoryRevaluer.submit(changed);
 
         } catch (Exception e) {
-            System.err.println("[PriceUpdater] ⚠️ Skinport fetch issue: " + e.getMessage());
+            Log.warn("PriceUpdater", "⚠️ Price fetch issue", "error", e.getMessage());
         }
     }
 
@@ -295,27 +174,7 @@ public class PriceUpdater implements Runnable {
         try {
             priceCollection.bulkWrite(ops);
         } catch (Exception e) {
-            System.err.println("[PriceUpdater] ⚠️ Mongo bulk update failed: " + e.getMessage());
-        }
-    }
-
-    private static double safeDouble(JsonObject o, String key) {
-        try {
-            return o.get(key).getAsDouble();
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
-
-    private static String normalizeName(String name) {
-        if (name == null) return "";
-        String n = name.trim();
-        if (n.startsWith("? ")) n = "★ " + n.substring(2);
-        if (n.startsWith("?")) n = "★ " + n.substring(1).trim();
-        if ((n.contains("Gloves") || n.contains("Knife") || n.contains("Hand Wraps"))
-                && !n.startsWith("★ ")) {
-            n = "★ " + n;
+            Log.warn("PriceUpdater", "⚠️ Mongo bulk update failed", "error", e.getMessage());
         }
-        return n;
     }
 }
@@ -0,0 +1,37 @@
+package com.example.cs2bot.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup timings measured from JVM start: per-step durations, time until the
+ * bot is ready, and time until the first interaction was answered.
+ */
+public final class StartupMetrics {
+
+    private static final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final AtomicBoolean firstInteraction = new AtomicBoolean(false);
+
+    private StartupMetrics() {}
+
+    public static long sinceJvmStart() {
+        return System.currentTimeMillis() - jvmStart;
+    }
+
+    /** Record how long one startup step took. */
+    public static void step(String name, long startedAt) {
+        Log.info("Startup", "⏱️ Step done", "step", name,
+                "ms", System.currentTimeMillis() - startedAt, "sinceJvmMs", sinceJvmStart());
+    }
+
+    public static void ready() {
+        Log.info("Startup", "✅ Ready", "time_to_ready_ms", sinceJvmStart());
+    }
+
+    /** Call on every interaction; only the first one is reported. */
+    public static void interaction() {
+        if (!firstInteraction.get() && firstInteraction.compareAndSet(false, true)) {
+            Log.info("Startup", "⚡ First interaction", "time_to_first_interaction_ms", sinceJvmStart());
+        }
+    }
+}
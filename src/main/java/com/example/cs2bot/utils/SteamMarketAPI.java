@@ -2,7 +2,7 @@ package com.example.cs2bot.utils;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import io.github.cdimascio.dotenv.Dotenv;
+import com.example.cs2bot.config.BotConfig;
 
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
@@ -15,20 +15,12 @@ public class SteamMarketAPI {
     private static final Semaphore limiter = new Semaphore(1);
     private static final Random random = new Random();
     private static final String CSFLOAT_API = "https://api.csfloat.com/api/v1/listings";
-    private static String CSFLOAT_KEY;
-
-    static {
-        Dotenv dotenv = Dotenv.configure()
-                .directory(System.getProperty("user.dir"))
-                .ignoreIfMalformed()
-                .ignoreIfMissing()
-                .load();
-        CSFLOAT_KEY = dotenv.get("CSFLOAT_KEY");
-        if (CSFLOAT_KEY == null || CSFLOAT_KEY.isBlank()) {
-            // fallback if not in .env
-            CSFLOAT_KEY = "tXgJgZqb_GA8KQiyBHFPjHkRxO9W2qUZ";
-        }
-        System.out.println("🔑 Using CSFloat API key: " + CSFLOAT_KEY.substring(0, 6) + "********");
+    // fallback if not in .env
+    private static volatile String CSFLOAT_KEY = "tXgJgZqb_GA8KQiyBHFPjHkRxO9W2qUZ";
+
+    public static void init(BotConfig config) {
+        if (config.csfloatKey != null) CSFLOAT_KEY = config.csfloatKey;
+        Log.info("CSFloatAPI", "🔑 Using CSFloat API key", "key", BotConfig.mask(CSFLOAT_KEY));
     }
 
     /**
@@ -43,8 +35,10 @@ public class SteamMarketAPI {
 
         while (attempts < 3) {
             attempts++;
+            boolean acquired = false;
             try {
                 limiter.acquire();
+                acquired = true;
                 Thread.sleep(200 + random.nextInt(300));
 
                 HttpURLConnection conn = (HttpURLConnection) new URL(query).openConnection();
@@ -57,14 +51,13 @@ public class SteamMarketAPI {
 
                 if (code == 429) {
                     int wait = 6000 + random.nextInt(4000);
-                    System.err.printf("[CSFloatAPI] ⚠️  429 Rate limit hit for %s — waiting %ds%n",
-                            marketHashName, wait / 1000);
+                    Log.warn("CSFloatAPI", "⚠️ 429 rate limit hit", "item", marketHashName, "waitS", wait / 1000);
                     Thread.sleep(wait);
                     continue;
                 }
 
                 if (code != 200) {
-                    System.err.printf("[CSFloatAPI] ⚠️  HTTP %d for %s%n", code, marketHashName);
+                    Log.warn("CSFloatAPI", "⚠️ HTTP error", "status", code, "item", marketHashName);
                     return 0.0;
                 }
 
@@ -72,7 +65,9 @@ public class SteamMarketAPI {
 
                 if (!json.has("listings") || !json.get("listings").isJsonArray()
                         || json.getAsJsonArray("listings").size() == 0) {
-                    System.err.printf("[CSFloatAPI] ⚠️  No listings for %s%n", marketHashName);
+                    if (Log.sample("csfloat.no-listings", 20)) {
+                        Log.warn("CSFloatAPI", "⚠️ No listings (sampled 1/20)", "item", marketHashName);
+                    }
                     return 0.0;
                 }
 
@@ -83,25 +78,37 @@ public class SteamMarketAPI {
                 // 🧩 Get rarity using local schema
                 String rarity = SteamSchemaAPI.getRarity(marketHashName);
 
-                System.out.printf("[CSFloatAPI] ✅ %s → %.2f EUR (%s)%n", marketHashName, eur, rarity);
+                Log.debug("CSFloatAPI", "✅ Price", "item", marketHashName, "eur", eur, "rarity", rarity);
                 return eur;
 
+            } catch (InterruptedException e) {
+                // Cancelled (e.g. the aggregator timed out): stop retrying and keep the flag set
+                Thread.currentThread().interrupt();
+                return 0.0;
             } catch (Exception e) {
-                System.err.printf("[CSFloatAPI] ❌ Error fetching %s: %s%n", marketHashName, e.getMessage());
+                Log.warn("CSFloatAPI", "❌ Fetch failed", "item", marketHashName, "error", e.getMessage());
                 try {
                     Thread.sleep(2000 + random.nextInt(2000));
-                } catch (InterruptedException ignored) {}
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return 0.0;
+                }
             } finally {
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1000);
-                        limiter.release();
-                    } catch (InterruptedException ignored) {}
-                }).start();
+                // Only give back a permit we actually hold
+                if (acquired) {
+                    new Thread(() -> {
+                        try {
+                            Thread.sleep(1000);
+                        } catch (InterruptedException ignored) {
+                        } finally {
+                            limiter.release();
+                        }
+                    }).start();
+                }
             }
         }
 
-        System.err.printf("[CSFloatAPI] ⚠️  Skipped %s after 3 failed attempts.%n", marketHashName);
+        Log.warn("CSFloatAPI", "⚠️ Skipped after 3 failed attempts", "item", marketHashName);
         return 0.0;
     }
 
@@ -1,23 +1,58 @@
 package com.example.cs2bot.utils;
 
+import com.example.cs2bot.db.ChangeStreamWatcher;
 import com.example.cs2bot.db.MongoUtil;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
 import org.bson.Document;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class SteamPriceCache {
 
     private static final Map<String, Double> localCache = new ConcurrentHashMap<>();
-    private static final MongoCollection<Document> dbCache =
-            MongoUtil.getDB().getCollection("price_cache");
 
     // Cache validity in seconds (24h)
     private static final long CACHE_TTL = 24 * 60 * 60;
 
+    /** Keeps {@code localCache} in step with writes from other nodes. */
+    public static final ChangeStreamWatcher.Sink SINK = new ChangeStreamWatcher.Sink() {
+        @Override
+        public void upsert(Object id, Document doc) {
+            if (!(id instanceof String name)) return;
+            Object price = doc.get("price");
+            Object ts = doc.get("timestamp");
+            boolean fresh = ts instanceof Number
+                    && Instant.now().getEpochSecond() - ((Number) ts).longValue() <= CACHE_TTL;
+            if (price instanceof Number && fresh) {
+                localCache.put(name, ((Number) price).doubleValue());
+            } else {
+                localCache.remove(name);
+            }
+        }
+
+        @Override
+        public void remove(Object id) {
+            if (id instanceof String name) localCache.remove(name);
+        }
+
+        @Override
+        public void reset() {
+            // Entries are loaded lazily from Mongo, so dropping them is enough
+            localCache.clear();
+        }
+    };
+
     /** Get cached price (memory -> MongoDB) */
     public static Double get(String name) {
         if (name == null || name.isBlank()) return null;
@@ -28,7 +63,7 @@ public class SteamPriceCache {
         }
 
         // 2️⃣ Check MongoDB cache
-        Document doc = dbCache.find(Filters.eq("_id", name)).first();
+        Document doc = dbCache().find(Filters.eq("_id", name)).first();
         if (doc == null) return null;
 
         long timestamp = doc.getLong("timestamp");
@@ -40,11 +75,37 @@ public class SteamPriceCache {
         Double price = doc.getDouble("price");
         if (price != null) {
             localCache.put(name, price);
-            System.out.printf("[SteamPriceCache] 💾 Loaded cached price for %s: €%.2f%n", name, price);
+            Log.debug("SteamPriceCache", "💾 Loaded cached price", "item", name, "eur", price);
         }
         return price;
     }
 
+    /** Fresh cached prices for {@code names}: memory first, then one MongoDB query for the rest. */
+    public static Map<String, Double> getAll(Collection<String> names) {
+        Map<String, Double> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) continue;
+            Double price = localCache.get(name);
+            if (price != null) result.put(name, price);
+            else missing.add(name);
+        }
+        if (missing.isEmpty()) return result;
+
+        long now = Instant.now().getEpochSecond();
+        for (Document d : dbCache().find(Filters.in("_id", missing)).batchSize(5000)) {
+            Object price = d.get("price");
+            Object ts = d.get("timestamp");
+            if (!(d.get("_id") instanceof String name) || !(price instanceof Number p)) continue;
+            if (!(ts instanceof Number t) || now - t.longValue() > CACHE_TTL) continue;
+            localCache.put(name, p.doubleValue());
+            result.put(name, p.doubleValue());
+        }
+        Log.debug("SteamPriceCache", "💾 Loaded cached prices", "asked", missing.size(),
+                "found", result.size());
+        return result;
+    }
+
     /** Save price to memory and MongoDB */
     public static void put(String name, double price) {
         if (name == null || name.isBlank() || price <= 0) return;
@@ -55,8 +116,44 @@ public class SteamPriceCache {
                 .append("price", price)
                 .append("timestamp", Instant.now().getEpochSecond());
 
-        dbCache.replaceOne(Filters.eq("_id", name), doc, new com.mongodb.client.model.ReplaceOptions().upsert(true));
+        dbCache().replaceOne(Filters.eq("_id", name), doc, new com.mongodb.client.model.ReplaceOptions().upsert(true));
 
-        System.out.printf("[SteamPriceCache] ✅ Saved %s -> €%.2f%n", name, price);
+        Log.debug("SteamPriceCache", "✅ Saved", "item", name, "eur", price);
+    }
+
+    // Resolved on use so touching this class never requires Mongo to be up
+    private static MongoCollection<Document> dbCache() {
+        return MongoUtil.getDB().getCollection("price_cache");
+    }
+
+    /** Save many prices with one unordered bulk write. */
+    public static void putAll(Map<String, Double> prices) {
+        if (prices.isEmpty()) return;
+
+        long now = Instant.now().getEpochSecond();
+        List<ReplaceOneModel<Document>> ops = new ArrayList<>(prices.size());
+        for (Map.Entry<String, Double> e : prices.entrySet()) {
+            if (e.getKey() == null || e.getValue() == null || e.getValue() <= 0) continue;
+            localCache.put(e.getKey(), e.getValue());
+            ops.add(new ReplaceOneModel<>(Filters.eq("_id", e.getKey()),
+                    new Document("_id", e.getKey()).append("price", e.getValue()).append("timestamp", now),
+                    new ReplaceOptions().upsert(true)));
+        }
+        if (ops.isEmpty()) return;
+
+        dbCache().bulkWrite(ops, new BulkWriteOptions().ordered(false));
+        Log.info("SteamPriceCache", "✅ Saved batch", "count", ops.size());
+    }
+
+    /** Name → last update (epoch seconds) for every cached price. */
+    public static Map<String, Long> timestamps() {
+        Map<String, Long> result = new HashMap<>();
+        for (Document d : dbCache().find().projection(Projections.include("_id", "timestamp")).batchSize(5000)) {
+            Object ts = d.get("timestamp");
+            if (d.get("_id") instanceof String name && ts instanceof Number n) {
+                result.put(name, n.longValue());
+            }
+        }
+        return result;
     }
 }
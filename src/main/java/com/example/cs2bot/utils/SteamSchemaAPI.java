@@ -1,36 +1,31 @@
 package com.example.cs2bot.utils;
 
-import io.github.cdimascio.dotenv.Dotenv;
-import java.util.HashMap;
+import com.example.cs2bot.config.BotConfig;
+
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SteamSchemaAPI {
 
-    private static final Map<String, String> rarities = new HashMap<>();
+    private static final Map<String, String> rarities = new ConcurrentHashMap<>();
     private static String STEAM_API_KEY;
 
-    public static void loadRarities() {
+    public static void loadRarities(BotConfig config) {
         try {
-            Dotenv dotenv = Dotenv.configure()
-                    .directory(System.getProperty("user.dir"))
-                    .ignoreIfMalformed()
-                    .ignoreIfMissing()
-                    .load();
-
-            STEAM_API_KEY = dotenv.get("STEAM_API_KEY");
+            STEAM_API_KEY = config.steamApiKey;
 
-            System.out.println("🔑 Using Steam API Key: " +
-                    (STEAM_API_KEY != null && !STEAM_API_KEY.isBlank()
-                            ? STEAM_API_KEY.substring(0, 6) + "********"
-                            : "❌ None (using local rarities)"));
+            Log.info("SteamSchema", "🔑 Steam API key", "key",
+                    STEAM_API_KEY != null && !STEAM_API_KEY.isBlank()
+                            ? BotConfig.mask(STEAM_API_KEY)
+                            : "none (using local rarities)");
 
             // 🚨 Steam API schema removed — using local rarity map
             setupLocalRarities();
 
-            System.out.println("✅ Loaded " + rarities.size() + " local item rarity rules.");
+            Log.info("SteamSchema", "✅ Loaded local item rarity rules", "count", rarities.size());
 
         } catch (Exception e) {
-            System.err.println("❌ SteamSchemaAPI Error: " + e.getMessage());
+            Log.error("SteamSchema", "❌ Could not load rarities, using local rules", e);
             setupLocalRarities();
         }
     }